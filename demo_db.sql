@@ -25,7 +25,9 @@ CREATE TABLE `message` (
   `userID` varchar(25) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
   `content` varchar(5000) DEFAULT NULL,
   `time` datetime DEFAULT NULL,
-  PRIMARY KEY (`messageID`)
+  PRIMARY KEY (`messageID`),
+  KEY `state_time` (`state`,`time`,`messageID`),
+  KEY `user_time` (`userID`,`time`,`messageID`)
 ) ENGINE=InnoDB AUTO_INCREMENT=25 DEFAULT CHARSET=utf8;
 
 -- ----------------------------
@@ -52,7 +54,8 @@ CREATE TABLE `news` (
   `title` varchar(100) CHARACTER SET utf8 COLLATE utf8_general_ci DEFAULT NULL,
   `content` varchar(5000) DEFAULT NULL,
   `time` datetime(6) DEFAULT NULL,
-  PRIMARY KEY (`newsID`)
+  PRIMARY KEY (`newsID`),
+  KEY `time` (`time`,`newsID`)
 ) ENGINE=InnoDB AUTO_INCREMENT=16 DEFAULT CHARSET=utf8;
 
 -- ----------------------------
@@ -77,7 +80,10 @@ CREATE TABLE `order` (
   `total` int(5) DEFAULT NULL,
   PRIMARY KEY (`orderID`),
   KEY `userID` (`userID`),
-  KEY `gymID` (`venueID`)
+  KEY `gymID` (`venueID`),
+  KEY `state_start_time` (`state`,`start_time`),
+  KEY `state_order_time` (`state`,`order_time`,`orderID`),
+  KEY `user_order_time` (`userID`,`order_time`,`orderID`)
 ) ENGINE=InnoDB AUTO_INCREMENT=31 DEFAULT CHARSET=utf8;
 
 -- ----------------------------
@@ -95,6 +101,24 @@ INSERT INTO `order` VALUES ('21', 'yonghuming', '16', '2020-01-02 17:52:21', '20
 INSERT INTO `order` VALUES ('29', 'yonghu', '16', '2020-01-02 18:16:08', '2020-01-24 11:00:00', '3', '2', '1500');
 INSERT INTO `order` VALUES ('30', 'yonghu', '17', '2020-01-02 18:16:21', '2020-01-25 11:00:00', '3', '2', '900');
 
+-- ----------------------------
+-- Table structure for order_archive
+-- 已完成、失效且超过保留期的订单，由OrderArchiveJob从order表批量迁入
+-- ----------------------------
+DROP TABLE IF EXISTS `order_archive`;
+CREATE TABLE `order_archive` (
+  `orderID` int(11) NOT NULL,
+  `userID` varchar(25) NOT NULL,
+  `venueID` int(11) NOT NULL,
+  `order_time` datetime DEFAULT NULL,
+  `start_time` datetime DEFAULT NULL,
+  `hours` int(2) DEFAULT NULL,
+  `state` int(1) DEFAULT NULL,
+  `total` int(5) DEFAULT NULL,
+  PRIMARY KEY (`orderID`),
+  KEY `user_order_time` (`userID`,`order_time`,`orderID`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
 -- ----------------------------
 -- Table structure for user
 -- ----------------------------
@@ -108,7 +132,8 @@ CREATE TABLE `user` (
   `isadmin` int(10) NOT NULL,
   `user_name` varchar(255) DEFAULT NULL,
   `picture` varchar(255) DEFAULT NULL,
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `userID` (`userID`)
 ) ENGINE=InnoDB AUTO_INCREMENT=28 DEFAULT CHARSET=utf8;
 
 -- ----------------------------
@@ -135,7 +160,8 @@ CREATE TABLE `venue` (
   `address` varchar(255) DEFAULT NULL,
   `close_time` varchar(255) DEFAULT NULL,
   `open_time` varchar(255) DEFAULT NULL,
-  PRIMARY KEY (`venueID`)
+  PRIMARY KEY (`venueID`),
+  KEY `venue_name` (`venue_name`)
 ) ENGINE=InnoDB AUTO_INCREMENT=29 DEFAULT CHARSET=utf8;
 
 -- ----------------------------
@@ -147,3 +173,63 @@ INSERT INTO `venue` VALUES ('17', ' 体育馆占地面积达13900平方米，总
 INSERT INTO `venue` VALUES ('18', ' 可根据使用需求进行多种布置，舞台、主席台可灵活设置，具有很高的综合使用性能。馆内日常布置1片标准篮球场，14片羽毛球场，8张乒乓球桌。体育馆共设有固定座位6785座，其中一楼960座，二楼看台2437座，三楼3388座。\r\n\r\n   体育馆穹顶采用轮辐式张拉梁结构，屋盖跨度100米，馆内配备有专用运动木地板、中央空调、高清LED大屏、视频监控、自动消防系统，灯光音响的设置标准满 足比赛现场直播的要求，体育馆荣获“中国钢结构金刚奖”和“建设工程鲁班奖”两个建设工程领域国家级奖项。', '1000', '', '场馆4', '上海市静安区', '20:00', '09:00 ');
 INSERT INTO `venue` VALUES ('20', '体育中心占地面积 30.87万平方米，总建筑面积23.83万平方米，由两场两馆组成（即体育场，网球场，体育馆，游泳场馆）； 下设综合管理部、游泳场馆管理部、体育馆管理部、体育场管理部，等四个部门。', '800', '', '场馆5', '上海市杨浦区', '22:00', '08:00 ');
 INSERT INTO `venue` VALUES ('21', ' 综合训练馆是体育教学、运动训练基地，总建筑面积1.2万平方米，高度23米，屋盖为钢结构网架。室内运动 场地面积约1万平方米，馆内场地可根据使用需求进行多种布置，具有很高的综合使用性能。馆内主运动场地长153米，宽56米，日常布置3片配备专业运动木 地板的篮球场、2片塑胶五人制足球场，21片塑胶地面羽毛球场，40张乒乓球桌。馆内其他功能房间还设有1个健身室，1个体操健美操室、2个壁球室，8个 室内高尔夫教学间、1个瑜伽室、1个体育教室和多间教学办公辅助用房。', '700', '', '场馆6', '上海市浦东新区', '20:00', '08:00 ');
+
+-- ----------------------------
+-- Table structure for venue_daily_stats
+-- 每个场馆每天已审核、已完成订单的汇总，订单状态变化时增量更新，每晚重新核对
+-- ----------------------------
+DROP TABLE IF EXISTS `venue_daily_stats`;
+CREATE TABLE `venue_daily_stats` (
+  `venueID` int(11) NOT NULL,
+  `day` date NOT NULL,
+  `orders` int(11) NOT NULL DEFAULT '0',
+  `hours` int(11) NOT NULL DEFAULT '0',
+  `revenue` int(11) NOT NULL DEFAULT '0',
+  PRIMARY KEY (`venueID`,`day`),
+  KEY `day` (`day`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Table structure for cache_invalidation
+-- 各实例进程内缓存的失效消息，按version轮询，保留一小时
+-- ----------------------------
+DROP TABLE IF EXISTS `cache_invalidation`;
+CREATE TABLE `cache_invalidation` (
+  `version` bigint(20) NOT NULL AUTO_INCREMENT,
+  `origin` varchar(36) NOT NULL,
+  `region` varchar(64) NOT NULL,
+  `item` varchar(255) DEFAULT NULL,
+  `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`version`),
+  KEY `created_at` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Table structure for id_sequence
+-- 订单、留言、用户的主键号段，从现有最大ID之后开始分配，已有ID保持不变
+-- ----------------------------
+DROP TABLE IF EXISTS `id_sequence`;
+CREATE TABLE `id_sequence` (
+  `seq_name` varchar(32) NOT NULL,
+  `next_val` bigint(20) NOT NULL,
+  PRIMARY KEY (`seq_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Records of id_sequence
+-- ----------------------------
+INSERT INTO `id_sequence` SELECT 'order', IFNULL(MAX(`orderID`), 0) + 1 FROM `order`;
+INSERT INTO `id_sequence` SELECT 'message', IFNULL(MAX(`messageID`), 0) + 1 FROM `message`;
+INSERT INTO `id_sequence` SELECT 'user', IFNULL(MAX(`id`), 0) + 1 FROM `user`;
+
+-- ----------------------------
+-- Table structure for job_lock
+-- 多实例部署时定时任务的锁，每个任务一行，locked_until之前只有owner可以执行
+-- ----------------------------
+DROP TABLE IF EXISTS `job_lock`;
+CREATE TABLE `job_lock` (
+  `name` varchar(64) NOT NULL,
+  `owner` varchar(36) NOT NULL,
+  `locked_until` datetime NOT NULL,
+  PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
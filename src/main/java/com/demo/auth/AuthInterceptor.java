@@ -0,0 +1,92 @@
+package com.demo.auth;
+
+import com.demo.auth.LoginRequired.Role;
+import com.demo.entity.User;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 统一的登录检查，每个请求只从会话中取一次登录用户并放入request属性
+ * 拒绝时直接写出预先编码好的响应体，不创建异常：未登录401，普通用户访问管理员接口403。
+ */
+public class AuthInterceptor implements HandlerInterceptor {
+
+    public static final String PRINCIPAL = AuthInterceptor.class.getName() + ".PRINCIPAL";
+
+    private static final String CONTENT_TYPE = "text/plain;charset=UTF-8";
+    private static final byte[] UNAUTHORIZED = "请登录！".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FORBIDDEN = "需要管理员权限".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        LoginRequired required = find((HandlerMethod) handler);
+        if (required == null || required.value() == Role.NONE) {
+            return true;
+        }
+        HttpSession session = request.getSession(false);
+        User user = null;
+        User admin = null;
+        if (session != null) {
+            user = (User) session.getAttribute("user");
+            admin = (User) session.getAttribute("admin");
+            if (admin != null && admin.getIsadmin() != 1) {
+                admin = null;
+            }
+        }
+        User principal;
+        switch (required.value()) {
+            case ADMIN:
+                principal = admin;
+                break;
+            case ANY:
+                principal = user != null ? user : admin;
+                break;
+            default:
+                principal = user;
+        }
+        if (principal != null) {
+            request.setAttribute(PRINCIPAL, principal);
+            return true;
+        }
+        rejected.incrementAndGet();
+        if (required.value() == Role.ADMIN && user != null) {
+            reject(response, HttpStatus.FORBIDDEN, FORBIDDEN);
+        } else {
+            reject(response, HttpStatus.UNAUTHORIZED, UNAUTHORIZED);
+        }
+        return false;
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    private static LoginRequired find(HandlerMethod handler) {
+        LoginRequired required = handler.getMethodAnnotation(LoginRequired.class);
+        if (required == null) {
+            required = AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), LoginRequired.class);
+        }
+        return required;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, byte[] body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
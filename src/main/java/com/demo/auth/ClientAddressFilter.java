@@ -0,0 +1,84 @@
+package com.demo.auth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * 部署在负载均衡之后时，getRemoteAddr()得到的是代理的地址，按IP限流等依赖客户端地址的功能会把所有用户算作同一个IP
+ * 直接连接的地址属于auth.trusted-proxies时，从X-Forwarded-For由右向左跳过可信代理，取第一个不可信的地址作为客户端地址；
+ * 否则X-Forwarded-For可以由客户端任意伪造，不予理会。auth.trusted-proxies只应包含负载均衡自身的地址。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ClientAddressFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Forwarded-For";
+
+    /**
+     * 可信代理地址的正则，为空表示不信任任何代理
+     */
+    @Value("${auth.trusted-proxies:}")
+    private String trustedProxies = "";
+
+    private Pattern trusted;
+
+    @PostConstruct
+    public void init() {
+        trusted = trustedProxies == null || trustedProxies.trim().isEmpty() ? null : Pattern.compile(trustedProxies.trim());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = resolve(request.getRemoteAddr(), request.getHeader(HEADER));
+        if (client == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        chain.doFilter(new HttpServletRequestWrapper(request) {
+            @Override
+            public String getRemoteAddr() {
+                return client;
+            }
+
+            @Override
+            public String getRemoteHost() {
+                return client;
+            }
+        }, response);
+    }
+
+    /**
+     * @return 不需要替换时返回null
+     */
+    String resolve(String remoteAddr, String forwardedFor) {
+        if (trusted == null || forwardedFor == null || remoteAddr == null || !trusted.matcher(remoteAddr).matches()) {
+            return null;
+        }
+        String[] hops = forwardedFor.split(",");
+        String client = null;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!trusted.matcher(hop).matches()) {
+                break;
+            }
+        }
+        return client;
+    }
+}
@@ -0,0 +1,17 @@
+package com.demo.auth;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标在User类型的参数上，注入AuthInterceptor解析出的当前登录用户
+ * 只能用在@LoginRequired的处理方法上，其余方法得到null。
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
@@ -0,0 +1,38 @@
+package com.demo.auth;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标在控制器类或方法上，登录身份不符的请求由AuthInterceptor直接拒绝
+ * 方法上的注解优先于类上的注解，管理员控制器中对外开放的方法用Role.NONE标出。
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LoginRequired {
+
+    Role value() default Role.USER;
+
+    enum Role {
+        /**
+         * 不需要登录
+         */
+        NONE,
+        /**
+         * 普通用户
+         */
+        USER,
+        /**
+         * 管理员
+         */
+        ADMIN,
+        /**
+         * 普通用户或管理员
+         */
+        ANY
+    }
+}
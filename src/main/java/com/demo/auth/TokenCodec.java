@@ -0,0 +1,104 @@
+package com.demo.auth;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * 登录令牌的签发与校验
+ * 令牌格式为 base64url(账号\n角色\n过期时间).base64url(HMAC-SHA256签名)，
+ * 校验只需要密钥，不依赖服务端状态，多个实例配置相同的密钥即可互认。
+ */
+public class TokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+    private final ThreadLocal<Mac> macs;
+
+    public TokenCodec(String secret, long ttlSeconds) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.ttlSeconds = ttlSeconds;
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public String issue(String userID, boolean admin, long nowSeconds) {
+        byte[] payload = (userID + "\n" + (admin ? "A" : "U") + "\n" + (nowSeconds + ttlSeconds))
+                .getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(macs.get().doFinal(payload));
+    }
+
+    /**
+     * 签名不符、格式错误或已过期时返回null
+     */
+    public Claims verify(String token, long nowSeconds) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(macs.get().doFinal(payload), signature)) {
+            return null;
+        }
+        String[] parts = new String(payload, StandardCharsets.UTF_8).split("\n");
+        if (parts.length != 3) {
+            return null;
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(parts[2]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (expiresAt <= nowSeconds) {
+            return null;
+        }
+        return new Claims(parts[0], "A".equals(parts[1]));
+    }
+
+    public static class Claims {
+        private final String userID;
+        private final boolean admin;
+
+        public Claims(String userID, boolean admin) {
+            this.userID = userID;
+            this.admin = admin;
+        }
+
+        public String getUserID() {
+            return userID;
+        }
+
+        public boolean isAdmin() {
+            return admin;
+        }
+    }
+}
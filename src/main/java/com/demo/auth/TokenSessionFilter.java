@@ -0,0 +1,241 @@
+package com.demo.auth;
+
+import com.demo.cache.UserCache;
+import com.demo.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionContext;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 无状态登录：auth.mode=token时启用
+ * 登录后不在服务端保存会话，而是签发一个只含账号和角色的令牌写入Cookie。每个请求先校验令牌，
+ * 再从UserCache取出用户，包装成只在本次请求内有效的HttpSession交给后面的拦截器、控制器和页面模板，
+ * 它们读写"user"、"admin"属性的方式与servlet会话模式相同。
+ * 设置或移除这两个属性时重新签发或清除Cookie，其余属性不会保留到下一次请求。
+ */
+@Component
+@ConditionalOnProperty(name = "auth.mode", havingValue = "token")
+public class TokenSessionFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "AUTH_TOKEN";
+
+    @Value("${auth.token.secret:}")
+    private String secret;
+
+    @Value("${auth.token.ttl-minutes:720}")
+    private long ttlMinutes = 720;
+
+    @Autowired
+    private UserCache userCache;
+
+    private TokenCodec codec;
+
+    @PostConstruct
+    public void init() {
+        if (secret == null || secret.length() < 32) {
+            throw new IllegalStateException("auth.mode=token时auth.token.secret至少需要32个字符，且各实例必须一致");
+        }
+        codec = new TokenCodec(secret, ttlMinutes * 60);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(new TokenRequest(request, response), response);
+    }
+
+    private User resolve(HttpServletRequest request, Map<String, Object> attributes) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                TokenCodec.Claims claims = codec.verify(cookie.getValue(), System.currentTimeMillis() / 1000);
+                if (claims == null) {
+                    return null;
+                }
+                User user = userCache.findByUserID(claims.getUserID());
+                // 令牌签发后被删除或撤销管理员权限的账号按未登录处理
+                if (user == null || claims.isAdmin() && user.getIsadmin() != 1) {
+                    return null;
+                }
+                attributes.put(claims.isAdmin() ? "admin" : "user", user);
+                return user;
+            }
+        }
+        return null;
+    }
+
+    private void writeCookie(HttpServletResponse response, String value, long maxAge) {
+        response.addHeader("Set-Cookie", COOKIE + "=" + value + "; Max-Age=" + maxAge + "; Path=/; HttpOnly; SameSite=Lax");
+    }
+
+    private class TokenRequest extends HttpServletRequestWrapper {
+        private final HttpServletResponse response;
+        private TokenSession session;
+        private boolean resolved;
+
+        private TokenRequest(HttpServletRequest request, HttpServletResponse response) {
+            super(request);
+            this.response = response;
+        }
+
+        @Override
+        public HttpSession getSession(boolean create) {
+            if (!resolved) {
+                resolved = true;
+                Map<String, Object> attributes = new HashMap<>();
+                if (resolve((HttpServletRequest) getRequest(), attributes) != null) {
+                    session = new TokenSession(this, attributes, false);
+                }
+            }
+            if (session == null && create) {
+                session = new TokenSession(this, new HashMap<>(), true);
+            }
+            return session;
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+    }
+
+    /**
+     * 只在一次请求内有效的会话
+     */
+    private class TokenSession implements HttpSession {
+        private final TokenRequest request;
+        private final Map<String, Object> attributes;
+        private final boolean isNew;
+        private final long creationTime = System.currentTimeMillis();
+
+        private TokenSession(TokenRequest request, Map<String, Object> attributes, boolean isNew) {
+            this.request = request;
+            this.attributes = attributes;
+            this.isNew = isNew;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            return Collections.enumeration(attributes.keySet());
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (value == null) {
+                removeAttribute(name);
+                return;
+            }
+            attributes.put(name, value);
+            if (value instanceof User && ("user".equals(name) || "admin".equals(name))) {
+                User user = (User) value;
+                userCache.invalidate(user.getUserID());
+                writeCookie(request.response, codec.issue(user.getUserID(), "admin".equals(name),
+                        System.currentTimeMillis() / 1000), codec.getTtlSeconds());
+            }
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            attributes.remove(name);
+            if ("user".equals(name) || "admin".equals(name)) {
+                writeCookie(request.response, "", 0);
+            }
+        }
+
+        @Override
+        public void invalidate() {
+            attributes.clear();
+            writeCookie(request.response, "", 0);
+        }
+
+        @Override
+        public long getCreationTime() {
+            return creationTime;
+        }
+
+        @Override
+        public String getId() {
+            return "token";
+        }
+
+        @Override
+        public long getLastAccessedTime() {
+            return creationTime;
+        }
+
+        @Override
+        public ServletContext getServletContext() {
+            return request.getServletContext();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(int interval) {
+        }
+
+        @Override
+        public int getMaxInactiveInterval() {
+            return (int) codec.getTtlSeconds();
+        }
+
+        @Override
+        public boolean isNew() {
+            return isNew;
+        }
+
+        @Override
+        @Deprecated
+        public HttpSessionContext getSessionContext() {
+            return null;
+        }
+
+        @Override
+        @Deprecated
+        public Object getValue(String name) {
+            return getAttribute(name);
+        }
+
+        @Override
+        @Deprecated
+        public String[] getValueNames() {
+            return attributes.keySet().toArray(new String[0]);
+        }
+
+        @Override
+        @Deprecated
+        public void putValue(String name, Object value) {
+            setAttribute(name, value);
+        }
+
+        @Override
+        @Deprecated
+        public void removeValue(String name) {
+            removeAttribute(name);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.demo.cache;
+
+import com.demo.cache.bus.InvalidationBus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.function.LongSupplier;
+
+/**
+ * 按表、按用户维护的记录数缓存，分页查询的总数从这里取而不是每次执行COUNT(*)
+ * 新增、删除或改变状态时由对应的Service失效受影响用户的key和表级的key，下一次读取时重新统计，失效同时通知其他实例。
+ * 按用户的key随用户数增长，因此用有容量上限的LruCache保存，统计期间发生失效时不写回缓存。
+ */
+@Component
+public class CountCache {
+    private static final String REGION = "count";
+    /**
+     * 一次失效多个key时合并成一条通知，key之间用换行分隔
+     */
+    private static final String SEPARATOR = "\n";
+
+    private final LruCache<String, Long> counts;
+
+    @Autowired(required = false)
+    private InvalidationBus bus;
+
+    public CountCache() {
+        this(10000, 600);
+    }
+
+    @Autowired
+    public CountCache(@Value("${count.cache.size:10000}") int maxSize,
+                      @Value("${count.cache.ttl-seconds:600}") long ttlSeconds) {
+        counts = new LruCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (bus != null) {
+            // key为null表示全部失效
+            bus.subscribe(REGION, keys -> {
+                if (keys == null) {
+                    counts.invalidateAll();
+                } else {
+                    for (String key : keys.split(SEPARATOR)) {
+                        counts.invalidate(key);
+                    }
+                }
+            });
+        }
+    }
+
+    public long get(String key, LongSupplier loader) {
+        return counts.get(key, k -> loader.getAsLong());
+    }
+
+    public void invalidate(String... keys) {
+        for (String key : keys) {
+            counts.invalidate(key);
+        }
+        if (bus != null && keys.length > 0) {
+            bus.publish(REGION, String.join(SEPARATOR, keys));
+        }
+    }
+
+    /**
+     * 只用于归档等影响大量用户的批处理
+     */
+    public void invalidateAll() {
+        counts.invalidateAll();
+        if (bus != null) {
+            bus.publish(REGION, null);
+        }
+    }
+
+    public int size() {
+        return counts.size();
+    }
+}
@@ -0,0 +1,161 @@
+package com.demo.cache;
+
+import com.demo.cache.bus.InvalidationBus;
+import com.demo.entity.vo.MessageVo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 首页和留言列表用的最新已通过留言，按时间、留言ID倒序保存至多message.feed.size条
+ * 审核、修改、删除留言时在内存中增删对应的一条，不重新查询；其他实例发生修改时整体失效，下次读取重新加载。
+ * 请求的页超出内存中的条数时返回null，由调用方查询数据库。返回的都是副本。
+ */
+@Component
+public class MessageFeed {
+    private static final String REGION = "message-feed";
+    private static final Comparator<MessageVo> ORDER = Comparator.comparing(MessageVo::getTime)
+            .thenComparingInt(MessageVo::getMessageID).reversed();
+
+    @Value("${message.feed.size:50}")
+    private int maxSize = 50;
+
+    @Autowired(required = false)
+    private InvalidationBus bus;
+
+    private final List<MessageVo> entries = new ArrayList<>();
+    private boolean loaded;
+    /**
+     * 数据库中的已通过留言已全部在entries中，此时超出条数的页直接返回空
+     */
+    private boolean complete;
+    /**
+     * 每次修改都会递增，加载期间发生修改时不写回，避免装入过期的列表
+     */
+    private long generation;
+
+    @PostConstruct
+    public void init() {
+        if (bus != null) {
+            bus.subscribe(REGION, key -> evict());
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 未加载时先调用loader取最新的maxSize+1条，多出的一条只用来判断是否还有更早的留言
+     * @param page 从0开始
+     * @return 内存中不足这一页时返回null
+     */
+    public List<MessageVo> page(int page, int size, Supplier<List<MessageVo>> loader) {
+        long gen;
+        synchronized (this) {
+            if (loaded) {
+                return slice(page, size);
+            }
+            gen = generation;
+        }
+        List<MessageVo> latest = loader.get();
+        synchronized (this) {
+            if (!loaded && generation == gen) {
+                entries.clear();
+                entries.addAll(latest.subList(0, Math.min(latest.size(), maxSize)));
+                complete = latest.size() <= maxSize;
+                loaded = true;
+            }
+            return loaded ? slice(page, size) : null;
+        }
+    }
+
+    /**
+     * 留言通过审核或通过后被修改，比内存中最早一条还早且后面还有留言时不放入
+     */
+    public void put(MessageVo message) {
+        synchronized (this) {
+            generation++;
+            if (loaded) {
+                drop(message.getMessageID());
+                int i = Collections.binarySearch(entries, message, ORDER);
+                i = i < 0 ? -i - 1 : i;
+                if (i < entries.size() || complete) {
+                    entries.add(i, copy(message));
+                    if (entries.size() > maxSize) {
+                        entries.remove(entries.size() - 1);
+                        complete = false;
+                    }
+                }
+            }
+        }
+        publish();
+    }
+
+    /**
+     * 留言被驳回、删除或修改后重新待审核
+     */
+    public void remove(int messageID) {
+        synchronized (this) {
+            generation++;
+            if (loaded && drop(messageID) && !complete && entries.size() < maxSize / 2) {
+                // 删掉的太多，剩下的页都要查库，不如下次读取时重新加载
+                loaded = false;
+            }
+        }
+        publish();
+    }
+
+    /**
+     * 用户名、头像修改或用户被删除时调用
+     */
+    public void invalidate() {
+        evict();
+        publish();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void evict() {
+        generation++;
+        loaded = false;
+        entries.clear();
+    }
+
+    private boolean drop(int messageID) {
+        return entries.removeIf(message -> message.getMessageID() == messageID);
+    }
+
+    private void publish() {
+        if (bus != null) {
+            bus.publish(REGION, null);
+        }
+    }
+
+    private List<MessageVo> slice(int page, int size) {
+        int from = page * size;
+        int to = from + size;
+        if (to > entries.size() && !complete) {
+            return null;
+        }
+        List<MessageVo> list = new ArrayList<>(size);
+        for (int i = from; i < Math.min(to, entries.size()); i++) {
+            list.add(copy(entries.get(i)));
+        }
+        return list;
+    }
+
+    private static MessageVo copy(MessageVo message) {
+        return new MessageVo(message.getMessageID(), message.getUserID(), message.getContent(), message.getTime(),
+                message.getUserName(), message.getPicture(), message.getState());
+    }
+}
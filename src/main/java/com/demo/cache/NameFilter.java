@@ -0,0 +1,182 @@
+package com.demo.cache;
+
+import com.demo.cache.bus.InvalidationBus;
+import com.demo.dao.UserDao;
+import com.demo.dao.VenueDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户账号和场馆名称的布隆过滤器，用于注册、新增场馆时的重名检查
+ * 过滤器判定不存在时直接返回，可能存在时由调用方查数据库确认。
+ * 删除和改名留下的旧值无法从过滤器中移除，只会多一次数据库确认，每晚全量重建一次清掉。
+ * 新增的值通过InvalidationBus同步到其他实例的过滤器，否则其他实例会把已占用的名称判定为可用。
+ * 两列都是utf8_general_ci，比较时忽略大小写、重音和末尾空格，放入过滤器前按同样规则归一化。
+ */
+@Component
+public class NameFilter {
+    private static final Logger log = LoggerFactory.getLogger(NameFilter.class);
+
+    private static final int LOAD_BATCH = 5000;
+    private static final int MIN_CAPACITY = 1024;
+    private static final String USER_REGION = "name-filter:userID";
+    private static final String VENUE_REGION = "name-filter:venueName";
+
+    @Value("${name.filter.fpp:0.01}")
+    private double fpp = 0.01;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private VenueDao venueDao;
+
+    @Autowired(required = false)
+    private InvalidationBus bus;
+
+    private volatile Filter users = new Filter(MIN_CAPACITY, fpp);
+    private volatile Filter venues = new Filter(MIN_CAPACITY, fpp);
+
+    private final AtomicLong negatives = new AtomicLong();
+    private final AtomicLong positives = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        rebuildUsers();
+        rebuildVenues();
+        if (bus != null) {
+            bus.subscribe(USER_REGION, userID -> add(users, userID));
+            bus.subscribe(VENUE_REGION, venueName -> add(venues, venueName));
+        }
+    }
+
+    @Scheduled(cron = "${name.filter.rebuild-cron:0 0 4 * * *}")
+    public void rebuild() {
+        rebuildUsers();
+        rebuildVenues();
+    }
+
+    public boolean mightContainUserID(String userID) {
+        return check(users, userID);
+    }
+
+    public boolean mightContainVenueName(String venueName) {
+        return check(venues, venueName);
+    }
+
+    public void addUserID(String userID) {
+        add(users, userID);
+        if (bus != null && userID != null) {
+            bus.publish(USER_REGION, userID);
+        }
+    }
+
+    public void addVenueName(String venueName) {
+        add(venues, venueName);
+        if (bus != null && venueName != null) {
+            bus.publish(VENUE_REGION, venueName);
+        }
+    }
+
+    /**
+     * 过滤器直接判定不存在的次数
+     */
+    public long getNegatives() {
+        return negatives.get();
+    }
+
+    /**
+     * 需要查数据库确认的次数
+     */
+    public long getPositives() {
+        return positives.get();
+    }
+
+    synchronized void rebuildUsers() {
+        long start = System.currentTimeMillis();
+        Filter current = users;
+        Filter next = new Filter(Math.max(MIN_CAPACITY, userDao.count() * 2), fpp);
+        // 重建开始后新增的账号同时写入新旧两个过滤器，旧过滤器换下后不再断开，避免正在写入的请求丢失
+        current.next = next;
+        int lastID = 0;
+        List<Object[]> page;
+        do {
+            page = userDao.findIDAndUserIDAfter(lastID, PageRequest.of(0, LOAD_BATCH));
+            for (Object[] row : page) {
+                lastID = (Integer) row[0];
+                next.bloom.put(normalize((String) row[1]));
+            }
+        } while (page.size() == LOAD_BATCH);
+        users = next;
+        log.info("rebuilt userID filter, {} bits, {} ms", next.bloom.bitSize(), System.currentTimeMillis() - start);
+    }
+
+    synchronized void rebuildVenues() {
+        Filter current = venues;
+        List<String> names = venueDao.findAllVenueNames();
+        Filter next = new Filter(Math.max(MIN_CAPACITY, names.size() * 2L), fpp);
+        current.next = next;
+        for (String name : names) {
+            next.bloom.put(normalize(name));
+        }
+        venues = next;
+    }
+
+    private boolean check(Filter filter, String value) {
+        if (value == null) {
+            return false;
+        }
+        boolean result = filter.bloom.mightContain(normalize(value));
+        (result ? positives : negatives).incrementAndGet();
+        return result;
+    }
+
+    private static void add(Filter filter, String value) {
+        if (value == null) {
+            return;
+        }
+        String key = normalize(value);
+        for (Filter f = filter; f != null; f = f.next) {
+            f.bloom.put(key);
+        }
+    }
+
+    /**
+     * 近似utf8_general_ci的比较规则：去掉末尾空格、去掉重音符号、转小写
+     */
+    static String normalize(String value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        String s = Normalizer.normalize(value.substring(0, end), Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static class Filter {
+        private final BloomFilter bloom;
+        private volatile Filter next;
+
+        private Filter(long expectedInsertions, double fpp) {
+            this.bloom = new BloomFilter(expectedInsertions, fpp);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.demo.cache;
+
+import com.demo.cache.bus.InvalidationBus;
+import com.demo.dao.UserDao;
+import com.demo.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 按账号缓存用户，令牌模式下用来补全令牌之外的用户信息
+ * 缓存中的用户不带密码，返回的都是副本。用户修改时按账号失效，删除时清空，并通知其他实例。
+ */
+@Component
+public class UserCache {
+    private static final String REGION = "user";
+
+    @Value("${user.cache.size:1024}")
+    private int maxSize = 1024;
+
+    @Value("${user.cache.ttl-seconds:60}")
+    private long ttlSeconds = 60;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired(required = false)
+    private InvalidationBus bus;
+
+    private LruCache<String, User> byUserID;
+
+    @PostConstruct
+    public void init() {
+        byUserID = new LruCache<>(maxSize, ttlSeconds * 1000);
+        if (bus != null) {
+            // key为null表示全部失效
+            bus.subscribe(REGION, userID -> {
+                if (userID == null) {
+                    byUserID.invalidateAll();
+                } else {
+                    byUserID.invalidate(userID);
+                }
+            });
+        }
+    }
+
+    /**
+     * 用户不存在时返回null
+     */
+    public User findByUserID(String userID) {
+        return copy(byUserID.get(userID, id -> copy(userDao.findByUserID(id))));
+    }
+
+    public void invalidate(String userID) {
+        byUserID.invalidate(userID);
+        if (bus != null) {
+            bus.publish(REGION, userID);
+        }
+    }
+
+    public void invalidateAll() {
+        byUserID.invalidateAll();
+        if (bus != null) {
+            bus.publish(REGION, null);
+        }
+    }
+
+    public long getHits() {
+        return byUserID.getHits();
+    }
+
+    public long getMisses() {
+        return byUserID.getMisses();
+    }
+
+    private static User copy(User user) {
+        if (user == null) {
+            return null;
+        }
+        return new User(user.getId(), user.getUserID(), user.getUserName(), null, user.getEmail(),
+                user.getPhone(), user.getIsadmin(), user.getPicture());
+    }
+}
@@ -0,0 +1,105 @@
+package com.demo.cache;
+
+import com.demo.cache.bus.InvalidationBus;
+import com.demo.dao.VenueDao;
+import com.demo.entity.Venue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 场馆缓存，按ID和按名称各一份，另缓存全部场馆列表
+ * 场馆很少修改，任何新增、修改、删除都清空整个缓存，并通知其他实例清空。
+ * 返回的都是副本，调用方修改不会影响缓存中的数据。
+ */
+@Component
+public class VenueCache {
+    private static final String REGION = "venue";
+
+    @Value("${venue.cache.size:256}")
+    private int maxSize = 256;
+
+    @Value("${venue.cache.ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    @Autowired
+    private VenueDao venueDao;
+
+    @Autowired(required = false)
+    private InvalidationBus bus;
+
+    private LruCache<Integer, Venue> byID;
+    private LruCache<String, Venue> byName;
+    private LruCache<Boolean, List<Venue>> all;
+
+    @PostConstruct
+    public void init() {
+        byID = new LruCache<>(maxSize, ttlSeconds * 1000);
+        byName = new LruCache<>(maxSize, ttlSeconds * 1000);
+        all = new LruCache<>(1, ttlSeconds * 1000);
+        if (bus != null) {
+            bus.subscribe(REGION, key -> evictAll());
+        }
+    }
+
+    /**
+     * 场馆不存在时抛出EntityNotFoundException
+     */
+    public Venue findByVenueID(int venueID) {
+        Venue venue = byID.get(venueID, id -> venueDao.findById(id).orElse(null));
+        if (venue == null) {
+            throw new EntityNotFoundException("场馆不存在");
+        }
+        return copy(venue);
+    }
+
+    /**
+     * 场馆不存在时返回null，"不存在"同样会被缓存
+     */
+    public Venue findByVenueName(String venueName) {
+        return copy(byName.get(venueName, venueDao::findByVenueName));
+    }
+
+    public List<Venue> findAll() {
+        List<Venue> venues = all.get(Boolean.TRUE, key -> venueDao.findAll());
+        List<Venue> list = new ArrayList<>(venues.size());
+        for (Venue venue : venues) {
+            list.add(copy(venue));
+        }
+        return list;
+    }
+
+    public void invalidateAll() {
+        evictAll();
+        if (bus != null) {
+            bus.publish(REGION, null);
+        }
+    }
+
+    private void evictAll() {
+        byID.invalidateAll();
+        byName.invalidateAll();
+        all.invalidateAll();
+    }
+
+    public long getHits() {
+        return byID.getHits() + byName.getHits() + all.getHits();
+    }
+
+    public long getMisses() {
+        return byID.getMisses() + byName.getMisses() + all.getMisses();
+    }
+
+    private static Venue copy(Venue venue) {
+        if (venue == null) {
+            return null;
+        }
+        return new Venue(venue.getVenueID(), venue.getVenueName(), venue.getDescription(), venue.getPrice(),
+                venue.getPicture(), venue.getAddress(), venue.getOpen_time(), venue.getClose_time());
+    }
+}
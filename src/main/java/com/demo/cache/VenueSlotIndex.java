@@ -0,0 +1,337 @@
+package com.demo.cache;
+
+import com.demo.dao.OrderDao;
+import com.demo.entity.Order;
+import com.demo.service.OrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 场馆按天的时段占用索引
+ * 每个(场馆, 日期)保存一个24位的位图，第i位表示i点到i+1点已被占用，
+ * 跨越零点的订单会同时记入前后两天。启动时从数据库重建，之后由OrderServiceImpl维护，
+ * 由OrderExpiryJob定期推进索引起始日期并移除此前的订单，内存占用不随运行时间增长。
+ * 写操作按(场馆, 日期)分段加锁，不同场馆、不同日期的预约互不阻塞。
+ */
+@Component
+public class VenueSlotIndex {
+
+    public static final int SLOTS_PER_DAY = 24;
+
+    private static final int STRIPES = 64;
+
+    private final Map<Long, DaySlots> days = new ConcurrentHashMap<>();
+    private final Map<Integer, Order> orders = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+    private final AtomicInteger claimIDs = new AtomicInteger();
+
+    /**
+     * 早于该日期的查询不在索引范围内，由调用方回退到数据库
+     */
+    private volatile LocalDate horizon = LocalDate.MAX;
+
+    @Autowired
+    private OrderDao orderDao;
+
+    public VenueSlotIndex() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * 仅在启动时调用
+     */
+    @PostConstruct
+    public void rebuild() {
+        LocalDate from = LocalDate.now().minusDays(1);
+        List<Order> live = orderDao.findByStateInAndStartTimeGreaterThanEqual(
+                Arrays.asList(OrderService.STATE_NO_AUDIT, OrderService.STATE_WAIT, OrderService.STATE_FINISH),
+                from.minusDays(1).atStartOfDay());
+        days.clear();
+        orders.clear();
+        for (Order order : live) {
+            put(order);
+        }
+        horizon = from;
+    }
+
+    /**
+     * 把索引起始日期推进到from，移除在from之前就已结束的订单和占位
+     * 先推进起始日期，移除期间对更早日期的查询已经回退到数据库
+     */
+    public void prune(LocalDate from) {
+        if (!from.isAfter(horizon)) {
+            return;
+        }
+        horizon = from;
+        for (Order order : new ArrayList<>(orders.values())) {
+            List<LocalDate> span = daysOf(order);
+            if (span.get(span.size() - 1).isBefore(from)) {
+                remove(order.getOrderID());
+            }
+        }
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    public boolean covers(LocalDate day) {
+        return !day.isBefore(horizon);
+    }
+
+    /**
+     * 返回场馆某天的占用位图
+     */
+    public int occupied(int venueID, LocalDate day) {
+        DaySlots slots = days.get(key(venueID, day));
+        return slots == null ? 0 : slots.mask;
+    }
+
+    /**
+     * 返回与场馆某天有交集的订单，不包含尚未落库的占位
+     */
+    public List<Order> orders(int venueID, LocalDate day) {
+        DaySlots slots = days.get(key(venueID, day));
+        if (slots == null) {
+            return Collections.emptyList();
+        }
+        List<Order> list = new ArrayList<>(slots.orders.size());
+        for (Order order : slots.orders) {
+            if (order.getOrderID() > 0) {
+                list.add(order);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 原子地检查时段是否空闲并占用
+     * 索引范围之外的日期只能保证进程内的预约互斥
+     *
+     * @param excludeOrderID 修改订单时忽略订单自身，新建时传0
+     * @return 占位凭证，时段冲突时返回0
+     */
+    public int claim(int venueID, LocalDateTime startTime, int hours, int excludeOrderID) {
+        Order placeholder = new Order(claimIDs.decrementAndGet(), null, venueID, OrderService.STATE_NO_AUDIT,
+                null, startTime, hours, 0);
+        List<LocalDate> span = daysOf(placeholder);
+        boolean claimed = locked(keysOf(placeholder), () -> {
+            for (LocalDate day : span) {
+                if ((occupiedExcept(venueID, day, excludeOrderID) & maskOf(startTime, hours, day)) != 0) {
+                    return false;
+                }
+            }
+            link(placeholder);
+            return true;
+        });
+        return claimed ? placeholder.getOrderID() : 0;
+    }
+
+    /**
+     * 释放占位，订单落库后应先put再release
+     */
+    public void release(int claimID) {
+        remove(claimID);
+    }
+
+    /**
+     * 新增或替换订单；不再占用时段的订单(被拒绝等)会被移出索引
+     */
+    public void put(Order order) {
+        Order copy = isOccupying(order.getState()) && order.getStartTime() != null ? new Order(order.getOrderID(),
+                order.getUserID(), order.getVenueID(), order.getState(), order.getOrderTime(), order.getStartTime(),
+                order.getHours(), order.getTotal()) : null;
+        replace(order.getOrderID(), copy);
+    }
+
+    /**
+     * 只更新索引中已有订单的状态，不在索引中的订单忽略
+     */
+    public void updateState(int orderID, int state) {
+        Order old = orders.get(orderID);
+        if (old != null) {
+            Order order = new Order(old.getOrderID(), old.getUserID(), old.getVenueID(), state, old.getOrderTime(),
+                    old.getStartTime(), old.getHours(), old.getTotal());
+            put(order);
+        }
+    }
+
+    public void remove(int orderID) {
+        replace(orderID, null);
+    }
+
+    private void replace(int orderID, Order copy) {
+        while (true) {
+            Order old = orders.get(orderID);
+            List<Long> keys = new ArrayList<>();
+            if (old != null) {
+                keys.addAll(keysOf(old));
+            }
+            if (copy != null) {
+                keys.addAll(keysOf(copy));
+            }
+            if (keys.isEmpty()) {
+                return;
+            }
+            boolean done = locked(keys, () -> {
+                if (orders.get(orderID) != old) {
+                    return false;
+                }
+                if (old != null) {
+                    unlink(old);
+                }
+                if (copy != null) {
+                    link(copy);
+                }
+                return true;
+            });
+            if (done) {
+                return;
+            }
+        }
+    }
+
+    private void link(Order order) {
+        orders.put(order.getOrderID(), order);
+        for (LocalDate day : daysOf(order)) {
+            days.compute(key(order.getVenueID(), day), (k, slots) -> DaySlots.with(slots, order, day));
+        }
+    }
+
+    private void unlink(Order order) {
+        orders.remove(order.getOrderID());
+        for (LocalDate day : daysOf(order)) {
+            days.computeIfPresent(key(order.getVenueID(), day), (k, slots) -> slots.without(order.getOrderID(), day));
+        }
+    }
+
+    private int occupiedExcept(int venueID, LocalDate day, int orderID) {
+        DaySlots slots = days.get(key(venueID, day));
+        if (slots == null) {
+            return 0;
+        }
+        if (orderID == 0) {
+            return slots.mask;
+        }
+        int mask = 0;
+        for (Order order : slots.orders) {
+            if (order.getOrderID() != orderID) {
+                mask |= maskOf(order.getStartTime(), order.getHours(), day);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 按分段序号从小到大依次加锁，避免跨天订单之间死锁
+     */
+    private boolean locked(List<Long> keys, BooleanSupplier action) {
+        int[] stripes = keys.stream().mapToInt(VenueSlotIndex::stripe).distinct().sorted().toArray();
+        return locked(stripes, 0, action);
+    }
+
+    private boolean locked(int[] stripes, int i, BooleanSupplier action) {
+        if (i == stripes.length) {
+            return action.getAsBoolean();
+        }
+        synchronized (locks[stripes[i]]) {
+            return locked(stripes, i + 1, action);
+        }
+    }
+
+    public static boolean isOccupying(int state) {
+        return state == OrderService.STATE_NO_AUDIT || state == OrderService.STATE_WAIT
+                || state == OrderService.STATE_FINISH;
+    }
+
+    /**
+     * 订单在某一天占用的时段位图
+     */
+    public static int maskOf(LocalDateTime startTime, int hours, LocalDate day) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        long from = ChronoUnit.MINUTES.between(dayStart, startTime);
+        long to = from + hours * 60L;
+        int first = (int) Math.max(0, Math.floorDiv(from, 60L));
+        int last = (int) Math.min(SLOTS_PER_DAY, Math.floorDiv(to + 59, 60L));
+        int mask = 0;
+        for (int i = first; i < last; i++) {
+            mask |= 1 << i;
+        }
+        return mask;
+    }
+
+    static List<LocalDate> daysOf(Order order) {
+        List<LocalDate> list = new ArrayList<>(2);
+        LocalDateTime end = order.getStartTime().plusHours(Math.max(order.getHours(), 0));
+        LocalDate day = order.getStartTime().toLocalDate();
+        do {
+            list.add(day);
+            day = day.plusDays(1);
+        } while (day.atStartOfDay().isBefore(end));
+        return list;
+    }
+
+    private static List<Long> keysOf(Order order) {
+        List<Long> keys = new ArrayList<>(2);
+        for (LocalDate day : daysOf(order)) {
+            keys.add(key(order.getVenueID(), day));
+        }
+        return keys;
+    }
+
+    static long key(int venueID, LocalDate day) {
+        return ((long) venueID << 32) | (day.toEpochDay() & 0xffffffffL);
+    }
+
+    private static int stripe(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 58) & (STRIPES - 1);
+    }
+
+    /**
+     * 单个场馆单日的不可变快照，写入时整体替换
+     */
+    private static final class DaySlots {
+        final int mask;
+        final List<Order> orders;
+
+        private DaySlots(int mask, List<Order> orders) {
+            this.mask = mask;
+            this.orders = Collections.unmodifiableList(orders);
+        }
+
+        static DaySlots with(DaySlots slots, Order order, LocalDate day) {
+            List<Order> list = slots == null ? new ArrayList<>(1) : new ArrayList<>(slots.orders);
+            list.add(order);
+            int mask = slots == null ? 0 : slots.mask;
+            return new DaySlots(mask | maskOf(order.getStartTime(), order.getHours(), day), list);
+        }
+
+        DaySlots without(int orderID, LocalDate day) {
+            List<Order> list = new ArrayList<>(orders.size());
+            int mask = 0;
+            for (Order order : orders) {
+                if (order.getOrderID() != orderID) {
+                    list.add(order);
+                    mask |= maskOf(order.getStartTime(), order.getHours(), day);
+                }
+            }
+            return list.isEmpty() ? null : new DaySlots(mask, list);
+        }
+    }
+}
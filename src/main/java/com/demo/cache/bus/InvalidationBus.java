@@ -0,0 +1,91 @@
+package com.demo.cache.bus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 进程内缓存的跨实例失效总线
+ * 缓存在本地失效后调用publish，其他实例收到后只做本地失效，不再转发。
+ * 自己发出的消息在接收时忽略。没有配置传输方式时publish什么也不做，只有单个实例时就是这种情况。
+ */
+@Component
+public class InvalidationBus {
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private final String nodeID = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+
+    @Autowired(required = false)
+    private InvalidationTransport transport;
+
+    public InvalidationBus() {
+    }
+
+    public InvalidationBus(InvalidationTransport transport) {
+        this.transport = transport;
+        start();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (transport != null) {
+            transport.start(this::receive);
+        }
+    }
+
+    public void subscribe(String region, Consumer<String> listener) {
+        listeners.computeIfAbsent(region, r -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void publish(String region, String key) {
+        if (transport == null) {
+            return;
+        }
+        published.incrementAndGet();
+        transport.send(new InvalidationEvent(nodeID, region, key));
+    }
+
+    void receive(InvalidationEvent event) {
+        if (nodeID.equals(event.getOrigin())) {
+            return;
+        }
+        received.incrementAndGet();
+        List<Consumer<String>> list = listeners.get(event.getRegion());
+        if (list == null) {
+            return;
+        }
+        for (Consumer<String> listener : list) {
+            try {
+                listener.accept(event.getKey());
+            } catch (RuntimeException e) {
+                log.warn("cache invalidation failed, region {}, key {}", event.getRegion(), event.getKey(), e);
+            }
+        }
+    }
+
+    public String getNodeID() {
+        return nodeID;
+    }
+
+    public long getPublished() {
+        return published.get();
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+}
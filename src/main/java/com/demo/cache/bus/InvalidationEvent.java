@@ -0,0 +1,29 @@
+package com.demo.cache.bus;
+
+/**
+ * 一条缓存失效消息
+ * region区分缓存，key的含义由订阅该region的缓存自行解释。
+ */
+public class InvalidationEvent {
+    private final String origin;
+    private final String region;
+    private final String key;
+
+    public InvalidationEvent(String origin, String region, String key) {
+        this.origin = origin;
+        this.region = region;
+        this.key = key;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,20 @@
+package com.demo.cache.bus;
+
+import java.util.function.Consumer;
+
+/**
+ * 失效消息在实例之间的传输方式，由cache.bus.transport选择
+ */
+public interface InvalidationTransport {
+    /**
+     * 发送给所有实例，包括自己；发送失败只记录日志，不影响调用方的写操作
+     * @param event
+     */
+    void send(InvalidationEvent event);
+
+    /**
+     * 开始接收，收到的消息交给receiver
+     * @param receiver
+     */
+    void start(Consumer<InvalidationEvent> receiver);
+}
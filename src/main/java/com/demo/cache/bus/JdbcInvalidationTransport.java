@@ -0,0 +1,103 @@
+package com.demo.cache.bus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * 默认的传输方式：写入cache_invalidation表，各实例按版本号轮询
+ * 自增的版本号按插入顺序分配，提交顺序却可能不同，较小的版本号可能在较大的之后才可见。
+ * 因此只把早于settle-seconds的记录视为已稳定，从最后一个连续稳定的版本之后开始查询，
+ * 尚未稳定的版本记录在delivered中避免重复投递。
+ */
+@Component
+@ConditionalOnProperty(name = "cache.bus.transport", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcInvalidationTransport implements InvalidationTransport {
+    private static final Logger log = LoggerFactory.getLogger(JdbcInvalidationTransport.class);
+
+    private static final String INSERT = "insert into cache_invalidation (origin, region, item) values (?, ?, ?)";
+    private static final String POLL = "select version, origin, region, item, created_at < now() - interval ? second as settled " +
+            "from cache_invalidation where version > ? order by version limit ?";
+
+    @Value("${cache.bus.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${cache.bus.settle-seconds:10}")
+    private int settleSeconds = 10;
+
+    @Value("${cache.bus.retention-minutes:60}")
+    private int retentionMinutes = 60;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Consumer<InvalidationEvent> receiver;
+    private long settledVersion;
+    private final TreeSet<Long> delivered = new TreeSet<>();
+
+    @Override
+    public void send(InvalidationEvent event) {
+        try {
+            jdbcTemplate.update(INSERT, event.getOrigin(), event.getRegion(), event.getKey());
+        } catch (DataAccessException e) {
+            log.warn("failed to publish cache invalidation, region {}, key {}", event.getRegion(), event.getKey(), e);
+        }
+    }
+
+    /**
+     * 从当前最大版本开始接收，启动前的消息与刚加载的缓存无关
+     */
+    @Override
+    public synchronized void start(Consumer<InvalidationEvent> receiver) {
+        Long max = jdbcTemplate.queryForObject("select max(version) from cache_invalidation", Long.class);
+        settledVersion = max == null ? 0 : max;
+        delivered.clear();
+        this.receiver = receiver;
+    }
+
+    @Scheduled(fixedDelayString = "${cache.bus.poll-millis:1000}")
+    public synchronized void poll() {
+        if (receiver == null) {
+            return;
+        }
+        List<Map<String, Object>> rows;
+        try {
+            rows = jdbcTemplate.queryForList(POLL, settleSeconds, settledVersion, batchSize);
+        } catch (DataAccessException e) {
+            log.warn("failed to poll cache invalidations", e);
+            return;
+        }
+        boolean contiguous = true;
+        for (Map<String, Object> row : rows) {
+            long version = ((Number) row.get("version")).longValue();
+            if (delivered.add(version)) {
+                receiver.accept(new InvalidationEvent((String) row.get("origin"), (String) row.get("region"), (String) row.get("item")));
+            }
+            contiguous = contiguous && ((Number) row.get("settled")).intValue() == 1;
+            if (contiguous) {
+                settledVersion = version;
+            }
+        }
+        delivered.headSet(settledVersion, true).clear();
+    }
+
+    @Scheduled(fixedDelayString = "${cache.bus.cleanup-millis:600000}")
+    public void cleanup() {
+        try {
+            jdbcTemplate.update("delete from cache_invalidation where created_at < now() - interval ? minute", retentionMinutes);
+        } catch (DataAccessException e) {
+            log.warn("failed to clean up cache invalidations", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.demo.cache.bus;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 同一进程内的传输，同步投递给所有已启动的实例，用于测试中模拟多个节点
+ */
+@Component
+@ConditionalOnProperty(name = "cache.bus.transport", havingValue = "loopback")
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<InvalidationEvent>> receivers;
+
+    public LoopbackInvalidationTransport() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private LoopbackInvalidationTransport(List<Consumer<InvalidationEvent>> receivers) {
+        this.receivers = receivers;
+    }
+
+    /**
+     * 返回一个与当前传输互通的新传输，相当于同一网络中的另一个节点
+     */
+    public LoopbackInvalidationTransport peer() {
+        return new LoopbackInvalidationTransport(receivers);
+    }
+
+    @Override
+    public void send(InvalidationEvent event) {
+        for (Consumer<InvalidationEvent> receiver : receivers) {
+            receiver.accept(event);
+        }
+    }
+
+    @Override
+    public void start(Consumer<InvalidationEvent> receiver) {
+        receivers.add(receiver);
+    }
+}
@@ -0,0 +1,72 @@
+package com.demo.controller.admin;
+
+import com.demo.auth.LoginRequired;
+import com.demo.auth.LoginRequired.Role;
+import com.demo.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * 管理员导出CSV，边查询边写出响应
+ */
+@Controller
+@LoginRequired(Role.ADMIN)
+public class AdminExportController {
+    private static final MediaType CSV=new MediaType("text","csv",StandardCharsets.UTF_8);
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/admin/exportOrders.do")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(value = "startDate",required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                              @RequestParam(value = "endDate",required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+                                                              @RequestParam(value = "state",required = false) Integer state){
+        return csv("orders.csv",writer -> exportService.exportOrders(startDate,endDate,state,writer));
+    }
+
+    @GetMapping("/admin/exportUsers.do")
+    public ResponseEntity<StreamingResponseBody> exportUsers(){
+        return csv("users.csv",writer -> exportService.exportUsers(writer));
+    }
+
+    @GetMapping("/admin/exportMessages.do")
+    public ResponseEntity<StreamingResponseBody> exportMessages(@RequestParam(value = "startDate",required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                                @RequestParam(value = "endDate",required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+                                                                @RequestParam(value = "state",required = false) Integer state){
+        return csv("messages.csv",writer -> exportService.exportMessages(startDate,endDate,state,writer));
+    }
+
+    /**
+     * 以UTF-8 BOM开头，Excel打开时中文不乱码
+     */
+    private ResponseEntity<StreamingResponseBody> csv(String fileName, Export export) {
+        StreamingResponseBody body=out -> {
+            Writer writer=new BufferedWriter(new OutputStreamWriter(out,StandardCharsets.UTF_8));
+            writer.write('\uFEFF');
+            export.write(writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,"attachment; filename=\""+fileName+"\"")
+                .contentType(CSV)
+                .body(body);
+    }
+
+    private interface Export {
+        void write(Writer writer) throws IOException;
+    }
+}
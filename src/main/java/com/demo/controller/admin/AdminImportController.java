@@ -0,0 +1,41 @@
+package com.demo.controller.admin;
+
+import com.demo.auth.LoginRequired;
+import com.demo.auth.LoginRequired.Role;
+import com.demo.entity.vo.ImportReport;
+import com.demo.service.ImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 管理员从CSV批量导入场馆和用户
+ */
+@Controller
+@LoginRequired(Role.ADMIN)
+public class AdminImportController {
+    @Autowired
+    private ImportService importService;
+
+    @PostMapping("/admin/importVenues.do")
+    @ResponseBody
+    public ImportReport importVenues(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in=file.getInputStream()) {
+            return importService.importVenues(in);
+        }
+    }
+
+    @PostMapping("/admin/importUsers.do")
+    @ResponseBody
+    public ImportReport importUsers(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in=file.getInputStream()) {
+            return importService.importUsers(in);
+        }
+    }
+}
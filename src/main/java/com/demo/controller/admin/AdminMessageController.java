@@ -1,5 +1,7 @@
 package com.demo.controller.admin;
 
+import com.demo.auth.LoginRequired;
+import com.demo.auth.LoginRequired.Role;
 import com.demo.entity.Message;
 import com.demo.entity.vo.MessageVo;
 import com.demo.service.MessageService;
@@ -17,6 +19,7 @@ import java.util.List;
 // Test Conn
 
 @Controller
+@LoginRequired(Role.ADMIN)
 public class AdminMessageController {
     @Autowired
     private MessageService messageService;
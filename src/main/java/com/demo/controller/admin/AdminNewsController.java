@@ -1,7 +1,10 @@
 package com.demo.controller.admin;
 
+import com.demo.auth.LoginRequired;
+import com.demo.auth.LoginRequired.Role;
 import com.demo.entity.News;
 import com.demo.service.NewsService;
+import com.demo.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -17,6 +20,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Controller
+@LoginRequired(Role.ADMIN)
 public class AdminNewsController {
     @Autowired
     private NewsService newsService;
@@ -43,7 +47,12 @@ public class AdminNewsController {
 
     @RequestMapping("/newsList.do")
     @ResponseBody
-    public List<News> newsList(@RequestParam(value = "page",defaultValue = "1")int page){
+    public List<News> newsList(@RequestParam(value = "page",defaultValue = "1")int page,
+                               @RequestParam(value = "cursor",required = false)String cursor,
+                               HttpServletResponse response){
+        if(cursor!=null) {
+            return PageCursor.next(newsService.findAll(PageCursor.decode(cursor),10),10,n->new PageCursor(n.getTime(),n.getNewsID()),response);
+        }
         Pageable news_pageable= PageRequest.of(page-1,10, Sort.by("time").descending());
         Page<News> news=newsService.findAll(news_pageable);
         return news.getContent();
@@ -1,13 +1,17 @@
 package com.demo.controller.admin;
 
+import com.demo.auth.LoginRequired;
+import com.demo.auth.LoginRequired.Role;
 import com.demo.entity.Order;
 import com.demo.entity.vo.OrderVo;
 import com.demo.service.OrderService;
 import com.demo.service.OrderVoService;
+import com.demo.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,9 +19,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @Controller
+@LoginRequired(Role.ADMIN)
 public class AdminOrderController {
     @Autowired
     private OrderService orderService;
@@ -25,16 +33,36 @@ public class AdminOrderController {
     private OrderVoService orderVoService;
 
     @GetMapping("/reservation_manage")
-    public String reservation_manage(Model model){
-        List<Order> orders= orderService.findAuditOrder();
-        List<OrderVo> orderVos=orderVoService.returnVo(orders);
+    public String reservation_manage(Model model,
+                                     @RequestParam(value = "startDate",required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                     @RequestParam(value = "endDate",required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate){
+        Pageable audit_pageable= PageRequest.of(0,10, Sort.by("startTime").descending());
         Pageable order_pageable= PageRequest.of(0,10, Sort.by("orderTime").descending());
-        model.addAttribute("order_list",orderVos);
+        model.addAttribute("audit_total",orderService.findAuditOrder(startDate,endDate,audit_pageable).getTotalPages());
+        model.addAttribute("startDate",startDate);
+        model.addAttribute("endDate",endDate);
         model.addAttribute("total",orderService.findNoAuditOrder(order_pageable).getTotalPages());
 
         return "admin/reservation_manage";
     }
 
+    /**
+     * 管理员分页查看已审核订单
+     * @param page
+     * @param startDate 预约日期下限(含)
+     * @param endDate 预约日期上限(含)
+     * @return
+     */
+    @GetMapping("/admin/getAuditOrderList.do")
+    @ResponseBody
+    public List<OrderVo> getAuditOrder(@RequestParam(value = "page",defaultValue = "1")int page,
+                                       @RequestParam(value = "startDate",required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                       @RequestParam(value = "endDate",required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate){
+        Pageable audit_pageable= PageRequest.of(page-1,10, Sort.by("startTime").descending());
+        List<Order> orders=orderService.findAuditOrder(startDate,endDate,audit_pageable).getContent();
+        return orderVoService.returnVo(orders);
+    }
+
     /**
      * 管理员查看未审核订单
      * @param page
@@ -42,7 +70,13 @@ public class AdminOrderController {
      */
     @GetMapping("/admin/getOrderList.do")
     @ResponseBody
-    public List<OrderVo> getNoAuditOrder(@RequestParam(value = "page",defaultValue = "1")int page){
+    public List<OrderVo> getNoAuditOrder(@RequestParam(value = "page",defaultValue = "1")int page,
+                                         @RequestParam(value = "cursor",required = false)String cursor,
+                                         HttpServletResponse response){
+        if(cursor!=null) {
+            List<Order> orders=orderService.findNoAuditOrder(PageCursor.decode(cursor),10);
+            return orderVoService.returnVo(PageCursor.next(orders,10,o->new PageCursor(o.getOrderTime(),o.getOrderID()),response));
+        }
         Pageable order_pageable= PageRequest.of(page-1,10, Sort.by("orderTime").descending());
         List<Order> orders=orderService.findNoAuditOrder(order_pageable).getContent();
         return orderVoService.returnVo(orders);
@@ -61,4 +95,26 @@ public class AdminOrderController {
         orderService.rejectOrder(orderID);
         return true;
     }
+
+    /**
+     * 批量通过订单
+     * @param orderIDs
+     * @return 每个orderID的处理结果
+     */
+    @PostMapping("/passOrders.do")
+    @ResponseBody
+    public Map<Integer,Boolean> confirmOrders(@RequestParam("orderIDs") List<Integer> orderIDs) {
+        return orderService.confirmOrders(orderIDs);
+    }
+
+    /**
+     * 批量驳回订单
+     * @param orderIDs
+     * @return 每个orderID的处理结果
+     */
+    @PostMapping("/rejectOrders.do")
+    @ResponseBody
+    public Map<Integer,Boolean> rejectOrders(@RequestParam("orderIDs") List<Integer> orderIDs) {
+        return orderService.rejectOrders(orderIDs);
+    }
 }
@@ -0,0 +1,34 @@
+package com.demo.controller.admin;
+
+import com.demo.auth.LoginRequired;
+import com.demo.auth.LoginRequired.Role;
+import com.demo.entity.vo.VenueStatsVo;
+import com.demo.service.VenueStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Controller
+@LoginRequired(Role.ADMIN)
+public class AdminStatsController {
+    @Autowired
+    private VenueStatsService venueStatsService;
+
+    /**
+     * 各场馆每天的订单数、收入和使用率，默认最近7天
+     */
+    @GetMapping("/admin/venueStats.do")
+    @ResponseBody
+    public List<VenueStatsVo> venueStats(@RequestParam(value = "startDate",required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                         @RequestParam(value = "endDate",required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate){
+        LocalDate end=endDate==null?LocalDate.now():endDate;
+        LocalDate start=startDate==null?end.minusDays(6):startDate;
+        return venueStatsService.findStats(start,end);
+    }
+}
@@ -1,7 +1,10 @@
 package com.demo.controller.admin;
 
+import com.demo.auth.LoginRequired;
+import com.demo.auth.LoginRequired.Role;
 import com.demo.entity.User;
 import com.demo.service.UserService;
+import com.demo.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -20,6 +23,7 @@ import java.io.IOException;
 import java.util.List;
 
 @Controller
+@LoginRequired(Role.ADMIN)
 public class AdminUserController {
     @Autowired
     private UserService userService;
@@ -40,7 +44,12 @@ public class AdminUserController {
 
     @GetMapping("/userList.do")
     @ResponseBody
-    public List<User> userList(@RequestParam(value = "page",defaultValue = "1")int page){
+    public List<User> userList(@RequestParam(value = "page",defaultValue = "1")int page,
+                               @RequestParam(value = "cursor",required = false)String cursor,
+                               HttpServletResponse response){
+        if(cursor!=null) {
+            return PageCursor.next(userService.findByUserID(PageCursor.decode(cursor),10),10,u->new PageCursor(null,u.getId()),response);
+        }
         Pageable user_pageable= PageRequest.of(page-1,10, Sort.by("id").ascending());
         Page<User> users=userService.findByUserID(user_pageable);
         return users.getContent();
@@ -82,6 +91,7 @@ public class AdminUserController {
     }
 
     @PostMapping("/checkUserID.do")
+    @LoginRequired(Role.NONE)
     @ResponseBody
     public boolean checkUserID(String userID){
         int count=userService.countUserID(userID);
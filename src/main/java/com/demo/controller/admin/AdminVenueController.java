@@ -1,8 +1,11 @@
 package com.demo.controller.admin;
 
+import com.demo.auth.LoginRequired;
+import com.demo.auth.LoginRequired.Role;
 import com.demo.entity.Venue;
 import com.demo.service.VenueService;
 import com.demo.utils.FileUtil;
+import com.demo.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -20,6 +23,7 @@ import java.util.List;
 import java.util.Objects;
 
 @Controller
+@LoginRequired(Role.ADMIN)
 public class AdminVenueController {
     @Autowired
     private VenueService venueService;
@@ -49,7 +53,12 @@ public class AdminVenueController {
 
     @GetMapping("/venueList.do")
     @ResponseBody
-    public List<Venue> getVenueList(@RequestParam(value = "page", defaultValue = "1") int page) {
+    public List<Venue> getVenueList(@RequestParam(value = "page", defaultValue = "1") int page,
+                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                    HttpServletResponse response) {
+        if (cursor != null) {
+            return PageCursor.next(venueService.findAll(PageCursor.decode(cursor), 10), 10, v -> new PageCursor(null, v.getVenueID()), response);
+        }
         Pageable pageable = PageRequest.of(page - 1, 10, Sort.by("venueID").ascending());
 //        System.out.println(venueService.findAll(pageable).getTotalPages());
 //        System.out.println(venueService.findAll(pageable).getContent());
@@ -112,6 +121,7 @@ public class AdminVenueController {
     }
 
     @PostMapping("/checkVenueName.do")
+    @LoginRequired(Role.ANY)
     @ResponseBody
     public boolean checkVenueName(String venueName) {
         int count = venueService.countVenueName(venueName);
@@ -1,21 +1,24 @@
 package com.demo.controller.user;
 
+import com.demo.auth.CurrentUser;
+import com.demo.auth.LoginRequired;
 import com.demo.entity.Message;
 import com.demo.entity.User;
 import com.demo.entity.vo.MessageVo;
 import com.demo.service.MessageService;
 import com.demo.service.MessageVoService;
-import com.demo.exception.LoginException;
+import com.demo.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
-import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -29,18 +32,14 @@ public class MessageController {
     private MessageVoService messageVoService;
 
     @GetMapping("/message_list")
-    public String message_list(Model model,HttpServletRequest request)throws Exception{
+    @LoginRequired
+    public String message_list(Model model,@CurrentUser User loginUser)throws Exception{
         Pageable message_pageable= PageRequest.of(0,5, Sort.by("time").descending());
         Page<Message> messages=messageService.findPassState(message_pageable);
         List<MessageVo> message_list=messageVoService.returnVo(messages.getContent());
 
         model.addAttribute("total",messages.getTotalPages());
 
-        Object user=request.getSession().getAttribute("user");
-        if(user==null) {
-            throw new LoginException("请登录！");
-        }
-        User loginUser=(User)user;
 
             Pageable user_message_pageable = PageRequest.of(0,5, Sort.by("time").descending());
             model.addAttribute("user_total",messageService.findByUser(loginUser.getUserID(),user_message_pageable).getTotalPages());
@@ -53,26 +52,30 @@ public class MessageController {
     //只显示通过状态的留言
     @GetMapping("/message/getMessageList")
     @ResponseBody
-    public List<MessageVo> message_list(@RequestParam(value = "page",defaultValue = "1")int page){
+    public List<MessageVo> message_list(@RequestParam(value = "page",defaultValue = "1")int page,
+                                        @RequestParam(value = "cursor",required = false)String cursor,
+                                        HttpServletResponse response){
         System.out.println("success");
-        Pageable message_pageable= PageRequest.of(page-1,5, Sort.by("time").descending());
-        Page<Message> messages=messageService.findPassState(message_pageable);
-        List<MessageVo> message_list=messageVoService.returnVo(messages.getContent());
-
-        return message_list;
+        if(cursor!=null) {
+            List<Message> messages=messageService.findPassState(PageCursor.decode(cursor),5);
+            return messageVoService.returnVo(PageCursor.next(messages,5,m->new PageCursor(m.getTime(),m.getMessageID()),response));
+        }
+        return messageVoService.findPassPage(page-1,5);
     }
 
     //User的留言不管是否通过都显示
     @GetMapping("/message/findUserList")
     @ResponseBody
-    public List<MessageVo> user_message_list(@RequestParam(value = "page",defaultValue = "1")int page,HttpServletRequest request){
+    @LoginRequired
+    public List<MessageVo> user_message_list(@RequestParam(value = "page",defaultValue = "1")int page,
+                                             @RequestParam(value = "cursor",required = false)String cursor,
+                                             @CurrentUser User loginUser,HttpServletResponse response){
         System.out.println("find user messages");
 //        if(request.getSession().getAttribute("user")!=null) {
-        Object user=request.getSession().getAttribute("user");
-        if(user==null) {
-            throw new LoginException("请登录！");
+        if(cursor!=null) {
+            List<Message> messages=messageService.findByUser(loginUser.getUserID(),PageCursor.decode(cursor),5);
+            return messageVoService.returnVo(PageCursor.next(messages,5,m->new PageCursor(m.getTime(),m.getMessageID()),response));
         }
-        User loginUser=(User)user;
 
             Pageable message_pageable = PageRequest.of(page - 1, 5, Sort.by("time").descending());
             List<Message> user_messages = messageService.findByUser(loginUser.getUserID(), message_pageable).getContent();
@@ -83,9 +86,10 @@ public class MessageController {
 
     @PostMapping("/sendMessage")
     @ResponseBody
-    public void sendMessage(String userID, String content, HttpServletResponse response) throws IOException {
+    @LoginRequired
+    public void sendMessage(String content, @CurrentUser User loginUser, HttpServletResponse response) throws IOException {
         Message message=new Message();
-        message.setUserID(userID);
+        message.setUserID(loginUser.getUserID());
         message.setContent(content);
         message.setState(1);
         message.setTime(LocalDateTime.now());
@@ -95,8 +99,9 @@ public class MessageController {
 
     @PostMapping("/modifyMessage.do")
     @ResponseBody
-    public boolean modifyMessage(int messageID,String content, HttpServletResponse response) throws IOException {
-        Message message=messageService.findById(messageID);
+    @LoginRequired
+    public boolean modifyMessage(int messageID,String content,@CurrentUser User loginUser, HttpServletResponse response) throws IOException {
+        Message message=ownMessage(messageID,loginUser);
         message.setContent(content);
         message.setTime(LocalDateTime.now());
         message.setState(1);
@@ -106,10 +111,22 @@ public class MessageController {
 
     @PostMapping("/delMessage.do")
     @ResponseBody
-    public boolean delMessage(int messageID)
+    @LoginRequired
+    public boolean delMessage(int messageID,@CurrentUser User loginUser)
     {
+        ownMessage(messageID,loginUser);
         messageService.delById(messageID);
         return true;
     }
 
+    /**
+     * 只能修改、删除自己的留言，否则与拦截器拒绝请求一样返回403
+     */
+    private Message ownMessage(int messageID,User loginUser) {
+        Message message=messageService.findById(messageID);
+        if(message==null || loginUser.getUserID()==null || !loginUser.getUserID().equals(message.getUserID())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,"只能操作自己的留言");
+        }
+        return message;
+    }
 }
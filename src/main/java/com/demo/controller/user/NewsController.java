@@ -38,9 +38,9 @@ public class NewsController {
     @GetMapping("/news_list")
     public String news_list(Model model){
         Pageable news_pageable= PageRequest.of(0,5, Sort.by("time").descending());
-        List<News> news_list= newsService.findAll(news_pageable).getContent();
-        model.addAttribute("news_list",news_list);
-        model.addAttribute("total", newsService.findAll(news_pageable).getTotalPages());
+        Page<News> news= newsService.findAll(news_pageable);
+        model.addAttribute("news_list",news.getContent());
+        model.addAttribute("total", news.getTotalPages());
         return "news_list";
     }
 }
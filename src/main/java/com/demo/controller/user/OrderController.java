@@ -1,31 +1,45 @@
 package com.demo.controller.user;
 
+import com.demo.auth.CurrentUser;
+import com.demo.auth.LoginRequired;
 import com.demo.entity.Order;
 import com.demo.entity.User;
 import com.demo.entity.Venue;
 import com.demo.entity.vo.OrderVo;
 import com.demo.entity.vo.VenueOrder;
+import com.demo.entity.vo.VenueSchedule;
 import com.demo.service.OrderService;
 import com.demo.service.OrderVoService;
 import com.demo.service.VenueService;
-import com.demo.exception.LoginException;
+import com.demo.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
-import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Controller
+@LoginRequired
 public class OrderController {
+    /**
+     * 预约日历一次最多查询的天数
+     */
+    private static final int MAX_SCHEDULE_DAYS=31;
+
     @Autowired
     private OrderService orderService;
     @Autowired
@@ -34,13 +48,8 @@ public class OrderController {
     private VenueService venueService;
 
     @GetMapping("/order_manage")
-    public String order_manage(Model model,HttpServletRequest request){
+    public String order_manage(Model model,@CurrentUser User loginUser){
         Pageable order_pageable = PageRequest.of(0,5, Sort.by("orderTime").descending());
-        Object user=request.getSession().getAttribute("user");
-        if(user==null) {
-            throw new LoginException("请登录！");
-        }
-        User loginUser=(User)user;
         Page<Order> page=orderService.findUserOrder(loginUser.getUserID(),order_pageable);
 
         model.addAttribute("total",page.getTotalPages());
@@ -62,40 +71,37 @@ public class OrderController {
 
     @GetMapping("/getOrderList.do")
     @ResponseBody
-    public List<OrderVo> order_list(@RequestParam(value = "page",defaultValue = "1")int page, HttpServletRequest request){
+    public List<OrderVo> order_list(@RequestParam(value = "page",defaultValue = "1")int page,
+                                    @RequestParam(value = "cursor",required = false)String cursor,
+                                    @CurrentUser User loginUser, HttpServletResponse response){
         Pageable order_pageable = PageRequest.of(page-1,5, Sort.by("orderTime").descending());
-        Object user=request.getSession().getAttribute("user");
-        if(user==null) {
-            throw new LoginException("请登录！");
+        if(cursor!=null) {
+            List<Order> orders=orderService.findUserOrder(loginUser.getUserID(),PageCursor.decode(cursor),5);
+            return orderVoService.returnVo(PageCursor.next(orders,5,o->new PageCursor(o.getOrderTime(),o.getOrderID()),response));
         }
-        User loginUser=(User)user;
         Page<Order> page1=orderService.findUserOrder(loginUser.getUserID(),order_pageable);
         return orderVoService.returnVo(page1.getContent());
     }
 
     @PostMapping("/addOrder.do")
-    public void addOrder(String venueName, String date, String startTime, int hours,HttpServletRequest request, HttpServletResponse response) throws Exception {
+    public void addOrder(String venueName, String date, String startTime, int hours,@CurrentUser User loginUser, HttpServletResponse response) throws Exception {
         date=startTime+":00";
         DateTimeFormatter df = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
         LocalDateTime ldt = LocalDateTime.parse(date,df);
-        Object user=request.getSession().getAttribute("user");
-        if(user==null) {
-            throw new LoginException("请登录！");
-        }
-        User loginUser=(User)user;
         orderService.submit(venueName,ldt,hours,loginUser.getUserID());
         response.sendRedirect("order_manage");
     }
 
     @PostMapping("/finishOrder.do")
     @ResponseBody
-    public void finishOrder(int orderID) {
+    public void finishOrder(int orderID,@CurrentUser User loginUser) {
+        ownOrder(orderID,loginUser);
         orderService.finishOrder(orderID);
     }
 
     @GetMapping("/modifyOrder.do")
-    public String editOrder(Model model,int orderID){
-        Order order=orderService.findById(orderID);
+    public String editOrder(Model model,int orderID,@CurrentUser User loginUser){
+        Order order=ownOrder(orderID,loginUser);
         Venue venue=venueService.findByVenueID(order.getVenueID());
         model.addAttribute("venue",venue);
         model.addAttribute("order",order);
@@ -104,15 +110,11 @@ public class OrderController {
 
     @PostMapping("/modifyOrder")
     @ResponseBody
-    public boolean modifyOrder(String venueName, String date, String startTime, int hours,int orderID, HttpServletRequest request, HttpServletResponse response) throws Exception {
+    public boolean modifyOrder(String venueName, String date, String startTime, int hours,int orderID, @CurrentUser User loginUser, HttpServletResponse response) throws Exception {
+        ownOrder(orderID,loginUser);
         date=startTime+":00";
         DateTimeFormatter df = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
         LocalDateTime ldt = LocalDateTime.parse(date,df);
-        Object user=request.getSession().getAttribute("user");
-        if(user==null) {
-            throw new LoginException("请登录！");
-        }
-        User loginUser=(User)user;
         orderService.updateOrder(orderID,venueName,ldt,hours,loginUser.getUserID());
         response.sendRedirect("order_manage");
         return true;
@@ -120,7 +122,8 @@ public class OrderController {
 
     @PostMapping("/delOrder.do")
     @ResponseBody
-    public boolean delOrder(int orderID) {
+    public boolean delOrder(int orderID,@CurrentUser User loginUser) {
+        ownOrder(orderID,loginUser);
         orderService.delOrder(orderID);
         return true;
     }
@@ -139,8 +142,44 @@ public class OrderController {
 
         venueOrder.setVenue(venue);
         venueOrder.setOrders(orderService.findDateOrder(venue.getVenueID(),ldt,ldt2));
+        venueOrder.setOccupied(orderService.findOccupiedSlots(venue.getVenueID(),ldt.toLocalDate()));
         System.out.println(venueOrder);
         return venueOrder;
 
     }
+
+    @GetMapping("/order/getSchedule.do")
+    @ResponseBody
+    public List<VenueSchedule> getSchedule(@RequestParam(value = "venueIDs",required = false)List<Integer> venueIDs,
+                                           @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                           @RequestParam(value = "days",defaultValue = "7")int days){
+        days=Math.max(1,Math.min(days,MAX_SCHEDULE_DAYS));
+        List<Venue> venues=new ArrayList<>();
+        for(Venue venue:venueService.findAll()) {
+            if(venueIDs==null || venueIDs.contains(venue.getVenueID())) {
+                venues.add(venue);
+            }
+        }
+        List<Integer> ids=new ArrayList<>(venues.size());
+        for(Venue venue:venues) {
+            ids.add(venue.getVenueID());
+        }
+        Map<Integer,int[]> schedule=orderService.findSchedule(ids,date,days);
+        List<VenueSchedule> list=new ArrayList<>(venues.size());
+        for(Venue venue:venues) {
+            list.add(new VenueSchedule(venue,schedule.get(venue.getVenueID())));
+        }
+        return list;
+    }
+
+    /**
+     * 只能操作自己的订单，否则与拦截器拒绝请求一样返回403
+     */
+    private Order ownOrder(int orderID,User loginUser) {
+        Order order=orderService.findById(orderID);
+        if(order==null || loginUser.getUserID()==null || !loginUser.getUserID().equals(order.getUserID())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,"只能操作自己的订单");
+        }
+        return order;
+    }
 }
@@ -1,6 +1,9 @@
 package com.demo.controller.user;
 
+import com.demo.auth.CurrentUser;
+import com.demo.auth.LoginRequired;
 import com.demo.entity.User;
+import com.demo.service.LoginLimitService;
 import com.demo.service.UserService;
 import com.demo.utils.FileUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +21,8 @@ import java.util.Objects;
 public class UserController {
     @Autowired
     private UserService userService;
+    @Autowired
+    private LoginLimitService loginLimitService;
 
     @GetMapping("/signup")
     public String signUp(){
@@ -35,6 +40,9 @@ public class UserController {
     @PostMapping("/loginCheck.do")
     @ResponseBody
     public String login(String userID,String password, HttpServletRequest request) throws IOException {
+        if(loginLimitService.overLimit(userID,request.getRemoteAddr())){
+            return "limited";
+        }
         User user=userService.checkLogin(userID,password);
         if(user!=null){
             if(user.getIsadmin()==0){
@@ -81,8 +89,9 @@ public class UserController {
 
 
     @PostMapping("/updateUser.do")
-    public void updateUser(String userName, String userID, String passwordNew,String email, String phone, MultipartFile picture,HttpServletRequest request, HttpServletResponse response) throws Exception {
-        User user=userService.findByUserID(userID);
+    @LoginRequired
+    public void updateUser(String userName, String passwordNew,String email, String phone, MultipartFile picture,@CurrentUser User loginUser,HttpServletRequest request, HttpServletResponse response) throws Exception {
+        User user=userService.findByUserID(loginUser.getUserID());
         user.setUserName(userName);
         if(passwordNew!=null&& !"".equals(passwordNew)){
             user.setPassword(passwordNew);
@@ -101,14 +110,16 @@ public class UserController {
 
 
     @GetMapping("/checkPassword.do")
+    @LoginRequired
     @ResponseBody
-    public boolean checkPassword(String userID,String password)
+    public boolean checkPassword(String password,@CurrentUser User loginUser)
     {
-        User user=userService.findByUserID(userID);
+        User user=userService.findByUserID(loginUser.getUserID());
         return user.getPassword().equals(password);
     }
 
     @GetMapping("/user_info")
+    @LoginRequired
     public String user_info(Model model){
         return "user_info";
     }
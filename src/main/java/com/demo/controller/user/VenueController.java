@@ -47,9 +47,9 @@ public class VenueController {
     @GetMapping("/venue_list")
     public String venue_list(Model model) {
         Pageable venue_pageable = PageRequest.of(0, 5, Sort.by("venueID").ascending());
-        List<Venue> venue_list = venueService.findAll(venue_pageable).getContent();
-        model.addAttribute("venue_list", venue_list);
-        model.addAttribute("total", venueService.findAll(venue_pageable).getTotalPages());
+        Page<Venue> venues = venueService.findAll(venue_pageable);
+        model.addAttribute("venue_list", venues.getContent());
+        model.addAttribute("total", venues.getTotalPages());
         return "venue_list";
     }
 
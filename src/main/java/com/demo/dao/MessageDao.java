@@ -3,11 +3,15 @@ package com.demo.dao;
 import com.demo.entity.Message;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface MessageDao extends JpaRepository<Message,Integer> {
     Message findByMessageID(int messageID);
@@ -16,9 +20,28 @@ public interface MessageDao extends JpaRepository<Message,Integer> {
     
     Page<Message> findAllByState(int state,Pageable pageable);
 
+    Slice<Message> findByUserID(String userID,Pageable pageable);
+
+    Slice<Message> findByState(int state,Pageable pageable);
+
+    long countByUserID(String userID);
+
+    long countByState(int state);
+
+    @Query("select m from Message m where m.userID = ?1 and (m.time < ?2 or (m.time = ?2 and m.messageID < ?3)) order by m.time desc, m.messageID desc")
+    List<Message> findUserMessageBefore(String userID, LocalDateTime time, int messageID, Pageable pageable);
+
+    @Query("select m from Message m where m.state = ?1 and (m.time < ?2 or (m.time = ?2 and m.messageID < ?3)) order by m.time desc, m.messageID desc")
+    List<Message> findStateMessageBefore(int state, LocalDateTime time, int messageID, Pageable pageable);
+
     @Transactional
     @Modifying
     @Query(value="update Message o set o.state=?1 where o.messageID=?2",nativeQuery =true)
     void updateState(int state, int messageID);
 
+    @Transactional
+    @Modifying
+    @Query(value="update Message o set o.state=?1 where o.messageID=?2 and o.state in ?3",nativeQuery =true)
+    int transitState(int state, int messageID, Collection<Integer> expectedStates);
+
 }
@@ -1,8 +1,18 @@
 package com.demo.dao;
 
 import com.demo.entity.News;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface NewsDao extends JpaRepository<News,Integer> {
 
+    Slice<News> findAllBy(Pageable pageable);
+
+    @Query("select n from News n where n.time < ?1 or (n.time = ?1 and n.newsID < ?2) order by n.time desc, n.newsID desc")
+    List<News> findNewsBefore(LocalDateTime time, int newsID, Pageable pageable);
 }
@@ -3,12 +3,16 @@ package com.demo.dao;
 import com.demo.entity.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import javax.persistence.LockModeType;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderDao extends JpaRepository<Order,Integer> {
@@ -17,15 +21,80 @@ public interface OrderDao extends JpaRepository<Order,Integer> {
 
     Page<Order> findAllByState(int state,Pageable pageable);
 
+    Slice<Order> findByState(int state,Pageable pageable);
+
+    long countByState(int state);
+
     List<Order> findByVenueIDAndStartTimeIsBetween(int venueID, LocalDateTime startTime, LocalDateTime startTime2);
 
-    @Query(value = "select * from `order` o where o.state = ?1 or o.state = ?2 ", nativeQuery = true)
-    List<Order> findAudit(int state1,int state2);
+    List<Order> findByVenueIDInAndStateInAndStartTimeBetween(Collection<Integer> venueIDs, Collection<Integer> states, LocalDateTime startTime, LocalDateTime startTime2);
+
+    List<Order> findByStateInAndStartTimeGreaterThanEqual(Collection<Integer> states, LocalDateTime startTime);
+
+    Page<Order> findAllByStateInAndStartTimeBetween(Collection<Integer> states, LocalDateTime startTime, LocalDateTime startTime2, Pageable pageable);
 
     Page<Order> findAllByUserID(String userID, Pageable pageable);
 
+    Slice<Order> findByUserID(String userID, Pageable pageable);
+
+    long countByUserID(String userID);
+
+    @Query(value = "select * from `order` o where o.userID = ?1 and (o.order_time < ?2 or (o.order_time = ?2 and o.orderID < ?3)) " +
+            "order by o.order_time desc, o.orderID desc limit ?4", nativeQuery = true)
+    List<Order> findUserOrderBefore(String userID, LocalDateTime orderTime, int orderID, int size);
+
+    @Query(value = "select * from `order` o where o.state = ?1 and (o.order_time < ?2 or (o.order_time = ?2 and o.orderID < ?3)) " +
+            "order by o.order_time desc, o.orderID desc limit ?4", nativeQuery = true)
+    List<Order> findStateOrderBefore(int state, LocalDateTime orderTime, int orderID, int size);
+
+    @Query(value = "select o.orderID from `order` o where o.state = ?1 and o.start_time < ?2 " +
+            "order by o.start_time limit ?3", nativeQuery = true)
+    List<Integer> findStartedBefore(int state, LocalDateTime time, int size);
+
+    @Query(value = "select o.orderID from `order` o where o.state = ?1 and o.start_time < ?2 " +
+            "and date_add(o.start_time, interval o.hours hour) <= ?2 order by o.start_time limit ?3", nativeQuery = true)
+    List<Integer> findEndedBefore(int state, LocalDateTime time, int size);
+
+    @Query(value = "select o.orderID from `order` o where o.state in ?1 and o.start_time < ?2 " +
+            "order by o.start_time limit ?3", nativeQuery = true)
+    List<Integer> findArchivable(Collection<Integer> states, LocalDateTime time, int size);
+
+    @Modifying
+    @Query(value = "insert into order_archive (orderID, userID, venueID, order_time, start_time, hours, state, total) " +
+            "select o.orderID, o.userID, o.venueID, o.order_time, o.start_time, o.hours, o.state, o.total " +
+            "from `order` o where o.orderID in ?1", nativeQuery = true)
+    int copyToArchive(Collection<Integer> orderIDs);
+
+    @Modifying
+    @Query(value = "delete from `order` where orderID in ?1", nativeQuery = true)
+    int deleteIn(Collection<Integer> orderIDs);
+
+    @Query(value = "select count(*) from order_archive o where o.userID = ?1", nativeQuery = true)
+    long countArchivedByUserID(String userID);
+
+    @Query(value = "select * from order_archive o where o.userID = ?1 " +
+            "order by o.order_time desc, o.orderID desc limit ?2 offset ?3", nativeQuery = true)
+    List<Order> findArchivedByUserID(String userID, int size, long offset);
+
+    @Query(value = "select * from order_archive o where o.userID = ?1 and (o.order_time < ?2 or (o.order_time = ?2 and o.orderID < ?3)) " +
+            "order by o.order_time desc, o.orderID desc limit ?4", nativeQuery = true)
+    List<Order> findArchivedUserOrderBefore(String userID, LocalDateTime orderTime, int orderID, int size);
+
     @Transactional
     @Modifying
     @Query(value="update `order` o set o.state=?1 where o.orderID=?2",nativeQuery =true)
     void updateState(int state, int orderID);
+
+    @Transactional
+    @Modifying
+    @Query(value="update `order` o set o.state=?1 where o.orderID=?2 and o.state in ?3",nativeQuery =true)
+    int transitState(int state, int orderID, Collection<Integer> expectedStates);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Order> findByOrderIDInAndState(Collection<Integer> orderIDs, int state);
+
+    @Transactional
+    @Modifying
+    @Query(value="update `order` o set o.state=?1 where o.orderID in ?2 and o.state=?3",nativeQuery =true)
+    int updateStateIn(int state, Collection<Integer> orderIDs, int expectedState);
 }
@@ -3,12 +3,26 @@ package com.demo.dao;
 import com.demo.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface UserDao extends JpaRepository<User,Integer> {
     User findByUserIDAndPassword(String userID, String password);
     User findByUserID(String userID);
     Page<User> findAllByIsadmin(int isadmin, Pageable pageable);
+    Slice<User> findByIsadmin(int isadmin, Pageable pageable);
+    long countByIsadmin(int isadmin);
+    List<User> findByIsadminAndIdGreaterThanOrderByIdAsc(int isadmin, int id, Pageable pageable);
     int countByUserID(String userID);
+    boolean existsByUserID(String userID);
     User findById(int id);
+    List<User> findByUserIDIn(Collection<String> userIDs);
+    @Query("select u.userID from User u where u.userID in ?1")
+    List<String> findUserIDIn(Collection<String> userIDs);
+    @Query("select u.id, u.userID from User u where u.id > ?1 order by u.id")
+    List<Object[]> findIDAndUserIDAfter(int id, Pageable pageable);
 }
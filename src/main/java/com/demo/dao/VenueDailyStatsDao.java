@@ -0,0 +1,42 @@
+package com.demo.dao;
+
+import com.demo.entity.VenueDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import javax.transaction.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface VenueDailyStatsDao extends JpaRepository<VenueDailyStats, VenueDailyStats.Key> {
+
+    List<VenueDailyStats> findByDayBetweenOrderByDayAscVenueIDAsc(LocalDate startDay, LocalDate endDay);
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into venue_daily_stats (venueID, day, orders, hours, revenue) values (?1, ?2, ?3, ?4, ?5) " +
+            "on duplicate key update orders = orders + values(orders), hours = hours + values(hours), revenue = revenue + values(revenue)",
+            nativeQuery = true)
+    void add(int venueID, LocalDate day, int orders, int hours, int revenue);
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into venue_daily_stats (venueID, day, orders, hours, revenue) " +
+            "select o.venueID, date(o.start_time), ?2, ?2 * o.hours, ?2 * o.total from `order` o where o.orderID = ?1 " +
+            "on duplicate key update orders = orders + values(orders), hours = hours + values(hours), revenue = revenue + values(revenue)",
+            nativeQuery = true)
+    void addOrder(int orderID, int sign);
+
+    @Modifying
+    @Query(value = "delete from venue_daily_stats where day >= ?1 and day < ?2", nativeQuery = true)
+    int deleteDays(LocalDate startDay, LocalDate endDay);
+
+    @Modifying
+    @Query(value = "insert into venue_daily_stats (venueID, day, orders, hours, revenue) " +
+            "select o.venueID, date(o.start_time), count(*), sum(o.hours), sum(o.total) from `order` o " +
+            "where o.state in (2, 3) and o.start_time >= ?1 and o.start_time < ?2 group by o.venueID, date(o.start_time)",
+            nativeQuery = true)
+    int rebuildDays(LocalDateTime startTime, LocalDateTime endTime);
+}
@@ -1,9 +1,12 @@
 package com.demo.dao;
 
 import com.demo.entity.Venue;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface VenueDao extends JpaRepository<Venue, Integer> {
@@ -17,4 +20,14 @@ public interface VenueDao extends JpaRepository<Venue, Integer> {
 
     int countByVenueName(String venueName);
 
+    @Query("select v.venueName from Venue v where v.venueName in ?1")
+    List<String> findVenueNameIn(Collection<String> venueNames);
+
+    @Query("select v.venueName from Venue v where v.venueName is not null")
+    List<String> findAllVenueNames();
+
+    Slice<Venue> findAllBy(Pageable pageable);
+
+    List<Venue> findByVenueIDGreaterThanOrderByVenueIDAsc(int venueID, Pageable pageable);
+
 }
@@ -17,7 +17,7 @@ import java.util.Date;
 @Table(name="`order`")
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "order_id")
     private int orderID;
 
     private String userID;
@@ -0,0 +1,43 @@
+package com.demo.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "venue_daily_stats")
+@IdClass(VenueDailyStats.Key.class)
+public class VenueDailyStats {
+    @Id
+    private int venueID;
+
+    @Id
+    private LocalDate day;
+
+    /**
+     * 当天已审核、已完成的订单数
+     */
+    private int orders;
+
+    private int hours;
+
+    private int revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private int venueID;
+        private LocalDate day;
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * 订单、留言、用户的主键从id_sequence表按号段分配(pooled-lo)，
+ * 插入前就能拿到主键，Hibernate可以把多条insert合并成JDBC批量执行
+ */
+@GenericGenerators({
+        @GenericGenerator(name = "order_id", strategy = "org.hibernate.id.enhanced.TableGenerator", parameters = {
+                @Parameter(name = "table_name", value = "id_sequence"),
+                @Parameter(name = "segment_column_name", value = "seq_name"),
+                @Parameter(name = "value_column_name", value = "next_val"),
+                @Parameter(name = "segment_value", value = "order"),
+                @Parameter(name = "increment_size", value = "50"),
+                @Parameter(name = "optimizer", value = "pooled-lo")}),
+        @GenericGenerator(name = "message_id", strategy = "org.hibernate.id.enhanced.TableGenerator", parameters = {
+                @Parameter(name = "table_name", value = "id_sequence"),
+                @Parameter(name = "segment_column_name", value = "seq_name"),
+                @Parameter(name = "value_column_name", value = "next_val"),
+                @Parameter(name = "segment_value", value = "message"),
+                @Parameter(name = "increment_size", value = "50"),
+                @Parameter(name = "optimizer", value = "pooled-lo")}),
+        @GenericGenerator(name = "user_id", strategy = "org.hibernate.id.enhanced.TableGenerator", parameters = {
+                @Parameter(name = "table_name", value = "id_sequence"),
+                @Parameter(name = "segment_column_name", value = "seq_name"),
+                @Parameter(name = "value_column_name", value = "next_val"),
+                @Parameter(name = "segment_value", value = "user"),
+                @Parameter(name = "increment_size", value = "50"),
+                @Parameter(name = "optimizer", value = "pooled-lo")})
+})
+package com.demo.entity;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.GenericGenerators;
+import org.hibernate.annotations.Parameter;
@@ -0,0 +1,34 @@
+package com.demo.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportReport {
+    /**
+     * 数据行数，不含表头
+     */
+    private int total;
+    private int imported;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void addError(int row, String message) {
+        errors.add(new RowError(row, message));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        /**
+         * CSV中的行号，表头为第1行
+         */
+        private int row;
+        private String message;
+    }
+}
@@ -14,4 +14,8 @@ import java.util.List;
 public class VenueOrder {
     Venue venue;
     List<Order> orders;
+    /**
+     * 按小时的占用位图，第i位表示i点到i+1点已被预约
+     */
+    int occupied;
 }
@@ -0,0 +1,17 @@
+package com.demo.entity.vo;
+
+import com.demo.entity.Venue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VenueSchedule {
+    Venue venue;
+    /**
+     * 从查询起始日期开始每天的占用位图，第i位表示i点到i+1点已被预约
+     */
+    int[] occupied;
+}
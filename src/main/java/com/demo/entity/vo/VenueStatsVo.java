@@ -0,0 +1,23 @@
+package com.demo.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VenueStatsVo {
+    private int venueID;
+    private String venueName;
+    private LocalDate day;
+    private int orders;
+    private int hours;
+    private int revenue;
+    /**
+     * 已预约小时数占当天开放小时数的比例
+     */
+    private double utilization;
+}
@@ -0,0 +1,34 @@
+package com.demo.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+public interface ExportService {
+    /**
+     * 按预约日期导出订单(含已归档的订单)为CSV
+     * @param startDate 预约日期下限(含)，为null时不限
+     * @param endDate 预约日期上限(含)，为null时不限
+     * @param state 为null时导出所有状态
+     * @param writer
+     * @throws IOException
+     */
+    void exportOrders(LocalDate startDate, LocalDate endDate, Integer state, Writer writer) throws IOException;
+
+    /**
+     * 导出所有用户为CSV，不含密码
+     * @param writer
+     * @throws IOException
+     */
+    void exportUsers(Writer writer) throws IOException;
+
+    /**
+     * 按留言时间导出留言为CSV
+     * @param startDate 留言日期下限(含)，为null时不限
+     * @param endDate 留言日期上限(含)，为null时不限
+     * @param state 为null时导出所有状态
+     * @param writer
+     * @throws IOException
+     */
+    void exportMessages(LocalDate startDate, LocalDate endDate, Integer state, Writer writer) throws IOException;
+}
@@ -0,0 +1,24 @@
+package com.demo.service;
+
+import com.demo.entity.vo.ImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportService {
+    /**
+     * 从CSV批量导入场馆，表头需包含venueName,price,open_time,close_time，可选address,description
+     * @param in
+     * @return 导入成功的行数和每行的错误
+     * @throws IOException
+     */
+    ImportReport importVenues(InputStream in) throws IOException;
+
+    /**
+     * 从CSV批量导入普通用户，表头需包含userID,password，可选userName,email,phone
+     * @param in
+     * @return 导入成功的行数和每行的错误
+     * @throws IOException
+     */
+    ImportReport importUsers(InputStream in) throws IOException;
+}
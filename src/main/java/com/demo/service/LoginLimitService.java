@@ -0,0 +1,21 @@
+package com.demo.service;
+
+public interface LoginLimitService {
+    /**
+     * 记一次登录尝试，按账号和客户端IP分别限流
+     * @param userID
+     * @param ip
+     * @return 超过限制时返回true，此时不应再校验密码
+     */
+    boolean overLimit(String userID, String ip);
+
+    /**
+     * 因IP超限被拒绝的次数
+     */
+    long getRejectedByIP();
+
+    /**
+     * 因账号超限被拒绝的次数
+     */
+    long getRejectedByUser();
+}
@@ -1,9 +1,12 @@
 package com.demo.service;
 
 import com.demo.entity.Message;
+import com.demo.utils.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface MessageService {
 
     int STATE_NO_AUDIT=1;
@@ -44,4 +47,14 @@ public interface MessageService {
 
     Page<Message> findPassState(Pageable pageable);
 
+    /**
+     * 按时间倒序的键集分页，不执行count查询
+     * @param cursor 上一页最后一条的游标，null表示第一页
+     * @param size
+     * @return
+     */
+    List<Message> findPassState(PageCursor cursor, int size);
+
+    List<Message> findByUser(String userID, PageCursor cursor, int size);
+
 }
@@ -8,4 +8,10 @@ import java.util.List;
 public interface MessageVoService  {
     MessageVo returnMessageVoByMessageID(int messageID);
     List<MessageVo> returnVo(List<Message> messages);
+
+    /**
+     * 按时间倒序分页查询已通过的留言，靠前的页从内存中读取
+     * @param page 从0开始
+     */
+    List<MessageVo> findPassPage(int page,int size);
 }
@@ -1,13 +1,32 @@
 package com.demo.service;
 
 import com.demo.entity.News;
+import com.demo.utils.PageCursor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable
         ;
 
+import java.util.List;
+
 public interface NewsService {
     Page<News> findAll(Pageable pageable);
 
+    /**
+     * 不统计总数的分页，用于"加载更多"
+     * @param pageable
+     * @return
+     */
+    Slice<News> findSlice(Pageable pageable);
+
+    /**
+     * 按时间倒序的键集分页，不执行count查询
+     * @param cursor 上一页最后一条的游标，null表示第一页
+     * @param size
+     * @return
+     */
+    List<News> findAll(PageCursor cursor, int size);
+
     News findById(int newsID);
 
     int create(News news);
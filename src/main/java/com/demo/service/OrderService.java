@@ -1,11 +1,16 @@
 package com.demo.service;
 
 import com.demo.entity.Order;
+import com.demo.utils.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface OrderService {
     int STATE_NO_AUDIT=1;
@@ -24,13 +29,62 @@ public interface OrderService {
 
     Page<Order> findNoAuditOrder(Pageable pageable);
 
-    List<Order> findAuditOrder();
+    /**
+     * 分页查看已审核和已完成的订单
+     * @param startDate 预约日期下限(含)，为null时不限
+     * @param endDate 预约日期上限(含)，为null时不限
+     * @param pageable
+     * @return
+     */
+    Page<Order> findAuditOrder(LocalDate startDate, LocalDate endDate, Pageable pageable);
 
 
     List<Order> findDateOrder(int venueID, LocalDateTime startTime, LocalDateTime startTime2);
 
+    /**
+     * 场馆某天按小时的占用位图，第i位表示i点到i+1点已被预约
+     * @param venueID
+     * @param date
+     * @return
+     */
+    int findOccupiedSlots(int venueID, LocalDate date);
+
+    /**
+     * 多个场馆连续多天的占用位图，用于预约日历一次取回一周的数据
+     * @param venueIDs
+     * @param startDate
+     * @param days
+     * @return venueID到每天占用位图的映射，数组下标为距startDate的天数
+     */
+    Map<Integer,int[]> findSchedule(Collection<Integer> venueIDs, LocalDate startDate, int days);
+
+    /**
+     * 分页查看用户的订单，在线订单之后接着返回已归档的订单
+     * @param userID
+     * @param pageable
+     * @return
+     */
     Page<Order> findUserOrder(String userID,Pageable pageable);
 
+    /**
+     * 不统计总数的分页，用于"加载更多"
+     * @param userID
+     * @param pageable
+     * @return
+     */
+    Slice<Order> findUserOrderSlice(String userID,Pageable pageable);
+
+    /**
+     * 按下单时间倒序的键集分页，不执行count查询
+     * @param userID
+     * @param cursor 上一页最后一条的游标，null表示第一页
+     * @param size
+     * @return
+     */
+    List<Order> findUserOrder(String userID, PageCursor cursor, int size);
+
+    List<Order> findNoAuditOrder(PageCursor cursor, int size);
+
     void updateOrder(int orderID,String venueName, LocalDateTime startTime, int hours, String userID);
     /**
      * 新建订单
@@ -63,4 +117,18 @@ public interface OrderService {
      * @param orderID
      */
     void rejectOrder(int orderID);
+
+    /**
+     * 批量通过未审核订单
+     * @param orderIDs
+     * @return 每个orderID是否通过成功，非未审核状态或不存在的订单为false
+     */
+    Map<Integer,Boolean> confirmOrders(Collection<Integer> orderIDs);
+
+    /**
+     * 批量拒绝未审核订单
+     * @param orderIDs
+     * @return 每个orderID是否拒绝成功，非未审核状态或不存在的订单为false
+     */
+    Map<Integer,Boolean> rejectOrders(Collection<Integer> orderIDs);
 }
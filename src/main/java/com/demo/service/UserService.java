@@ -1,8 +1,12 @@
 package com.demo.service;
 
 import com.demo.entity.User;
+import com.demo.utils.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 
 public interface UserService {
     /**
@@ -21,6 +25,21 @@ public interface UserService {
      */
     Page<User> findByUserID(Pageable pageable);
 
+    /**
+     * 不统计总数的分页，用于"加载更多"
+     * @param pageable
+     * @return
+     */
+    Slice<User> findUserSlice(Pageable pageable);
+
+    /**
+     * 按id正序的键集分页，不执行count查询
+     * @param cursor 上一页最后一条的游标，null表示第一页
+     * @param size
+     * @return
+     */
+    List<User> findByUserID(PageCursor cursor, int size);
+
     /**
      * 检查登录
      *
@@ -34,7 +53,7 @@ public interface UserService {
      * 创建用户
      *
      * @param user
-     * @return
+     * @return 新用户的id
      */
     int create(User user);
 
@@ -1,8 +1,10 @@
 package com.demo.service;
 
 import com.demo.entity.Venue;
+import com.demo.utils.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -23,7 +25,22 @@ public interface VenueService {
      */
     Page<Venue> findAll(Pageable pageable);
 
+    /**
+     * 不统计总数的分页，用于"加载更多"
+     * @param pageable
+     * @return
+     */
+    Slice<Venue> findSlice(Pageable pageable);
+
     List<Venue> findAll();
+
+    /**
+     * 按venueID正序的键集分页，不执行count查询
+     * @param cursor 上一页最后一条的游标，null表示第一页
+     * @param size
+     * @return
+     */
+    List<Venue> findAll(PageCursor cursor, int size);
     /**
      * 创建新的场馆
      *
@@ -0,0 +1,38 @@
+package com.demo.service;
+
+import com.demo.entity.Order;
+import com.demo.entity.vo.VenueStatsVo;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface VenueStatsService {
+    /**
+     * 查看各场馆每天的订单数、收入和使用率
+     * @param startDate 起始日期(含)
+     * @param endDate 结束日期(含)
+     * @return
+     */
+    List<VenueStatsVo> findStats(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 订单进入或离开已审核、已完成状态时增量更新当天汇总
+     * @param order
+     * @param sign 1计入，-1扣除
+     */
+    void record(Order order, int sign);
+
+    /**
+     * 按订单表中该订单的场馆、日期、时长和金额增量更新，在改变订单状态的同一事务中调用
+     * @param orderID
+     * @param sign 1计入，-1扣除
+     */
+    void record(int orderID, int sign);
+
+    /**
+     * 按order表重新计算[startDate, endDate]的汇总
+     * @param startDate
+     * @param endDate
+     */
+    void reconcile(LocalDate startDate, LocalDate endDate);
+}
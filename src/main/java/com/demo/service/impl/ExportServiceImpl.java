@@ -0,0 +1,107 @@
+package com.demo.service.impl;
+
+import com.demo.service.ExportService;
+import com.demo.utils.CsvUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 导出直接读JDBC结果集，MySQL驱动在fetchSize为Integer.MIN_VALUE时逐行从服务端读取，
+ * 每读一行就写入输出流，内存占用与导出的行数无关
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+    private static final DateTimeFormatter TIME_FORMAT=DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String ORDER_COLUMNS="o.orderID, o.userID, o.venueID, v.venue_name, o.order_time, o.start_time, o.hours, o.state, o.total";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void exportOrders(LocalDate startDate, LocalDate endDate, Integer state, Writer writer) throws IOException {
+        List<Object> args=new ArrayList<>();
+        String where=where("o.start_time","o.state",startDate,endDate,state,args);
+        List<Object> unionArgs=new ArrayList<>(args);
+        unionArgs.addAll(args);
+        String sql="select "+ORDER_COLUMNS+" from `order` o left join venue v on v.venueID = o.venueID"+where+
+                " union all select "+ORDER_COLUMNS+" from order_archive o left join venue v on v.venueID = o.venueID"+where;
+        CsvUtil.writeRow(writer,"orderID","userID","venueID","venueName","orderTime","startTime","hours","state","total");
+        stream(sql,unionArgs,writer);
+    }
+
+    @Override
+    public void exportUsers(Writer writer) throws IOException {
+        CsvUtil.writeRow(writer,"id","userID","userName","email","phone","isadmin");
+        stream("select u.id, u.userID, u.user_name, u.email, u.phone, u.isadmin from `user` u",new ArrayList<>(),writer);
+    }
+
+    @Override
+    public void exportMessages(LocalDate startDate, LocalDate endDate, Integer state, Writer writer) throws IOException {
+        List<Object> args=new ArrayList<>();
+        String where=where("m.time","m.state",startDate,endDate,state,args);
+        CsvUtil.writeRow(writer,"messageID","userID","content","time","state");
+        stream("select m.messageID, m.userID, m.content, m.time, m.state from message m"+where,args,writer);
+    }
+
+    private static String where(String timeColumn, String stateColumn, LocalDate startDate, LocalDate endDate, Integer state, List<Object> args) {
+        List<String> conditions=new ArrayList<>();
+        if(startDate!=null) {
+            conditions.add(timeColumn+" >= ?");
+            args.add(Timestamp.valueOf(startDate.atStartOfDay()));
+        }
+        if(endDate!=null) {
+            conditions.add(timeColumn+" < ?");
+            args.add(Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+        }
+        if(state!=null) {
+            conditions.add(stateColumn+" = ?");
+            args.add(state);
+        }
+        return conditions.isEmpty()?"":" where "+String.join(" and ",conditions);
+    }
+
+    private void stream(String sql, List<Object> args, Writer writer) throws IOException {
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps=connection.prepareStatement(sql,ResultSet.TYPE_FORWARD_ONLY,ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(Integer.MIN_VALUE);
+                for(int i=0;i<args.size();i++) {
+                    ps.setObject(i+1,args.get(i));
+                }
+                return ps;
+            }, (ResultSet rs) -> {
+                ResultSetMetaData meta=rs.getMetaData();
+                Object[] row=new Object[meta.getColumnCount()];
+                for(int i=0;i<row.length;i++) {
+                    Object value=rs.getObject(i+1);
+                    if(value instanceof Timestamp) {
+                        value=((Timestamp)value).toLocalDateTime();
+                    }
+                    row[i]=value instanceof LocalDateTime?TIME_FORMAT.format((LocalDateTime)value):value;
+                }
+                try {
+                    CsvUtil.writeRow(writer,row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,245 @@
+package com.demo.service.impl;
+
+import com.demo.cache.CountCache;
+import com.demo.cache.NameFilter;
+import com.demo.cache.VenueCache;
+import com.demo.dao.UserDao;
+import com.demo.dao.VenueDao;
+import com.demo.entity.User;
+import com.demo.entity.vo.ImportReport;
+import com.demo.service.ImportService;
+import com.demo.utils.CsvUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * CSV按行流式读取，每CHUNK行校验一次：唯一性用一条IN查询检查，合法的行在一个事务中批量写入
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+    private static final int CHUNK=500;
+    private static final String INSERT_VENUE="insert into venue (venue_name, description, price, picture, address, open_time, close_time) values (?, ?, ?, '', ?, ?, ?)";
+
+    @Autowired
+    private VenueDao venueDao;
+    @Autowired
+    private UserDao userDao;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private VenueCache venueCache;
+    @Autowired
+    private CountCache countCache;
+    @Autowired
+    private NameFilter nameFilter;
+
+    @Override
+    public ImportReport importVenues(InputStream in) throws IOException {
+        ImportReport report=new ImportReport();
+        Set<String> seen=new HashSet<>();
+        read(in,Arrays.asList("venueName","price","open_time","close_time"),report,rows->saveVenues(rows,seen,report));
+        if(report.getImported()>0) {
+            venueCache.invalidateAll();
+            countCache.invalidate("venue");
+        }
+        return report;
+    }
+
+    @Override
+    public ImportReport importUsers(InputStream in) throws IOException {
+        ImportReport report=new ImportReport();
+        Set<String> seen=new HashSet<>();
+        read(in,Arrays.asList("userID","password"),report,rows->saveUsers(rows,seen,report));
+        if(report.getImported()>0) {
+            countCache.invalidate("user");
+        }
+        return report;
+    }
+
+    private void saveVenues(List<Row> rows, Set<String> seen, ImportReport report) {
+        Map<String,Row> valid=new LinkedHashMap<>();
+        for(Row row:rows) {
+            String error=validateVenue(row);
+            String venueName=row.get("venueName");
+            if(error==null && !seen.add(venueName)) {
+                error="文件中场馆名称重复";
+            }
+            if(error!=null) {
+                report.addError(row.line,error);
+            } else {
+                valid.put(venueName,row);
+            }
+        }
+        if(valid.isEmpty()) {
+            return;
+        }
+        for(String venueName:venueDao.findVenueNameIn(valid.keySet())) {
+            report.addError(valid.remove(venueName).line,"场馆名称已存在");
+        }
+        List<Object[]> args=new ArrayList<>(valid.size());
+        for(Row row:valid.values()) {
+            args.add(new Object[]{row.get("venueName"),row.get("description"),Integer.parseInt(row.get("price")),
+                    row.get("address"),row.get("open_time"),row.get("close_time")});
+        }
+        if(!args.isEmpty()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status->jdbcTemplate.batchUpdate(INSERT_VENUE,args));
+            valid.keySet().forEach(nameFilter::addVenueName);
+            report.setImported(report.getImported()+args.size());
+        }
+    }
+
+    private void saveUsers(List<Row> rows, Set<String> seen, ImportReport report) {
+        Map<String,Row> valid=new LinkedHashMap<>();
+        for(Row row:rows) {
+            String error=validateUser(row);
+            String userID=row.get("userID");
+            if(error==null && !seen.add(userID)) {
+                error="文件中用户账号重复";
+            }
+            if(error!=null) {
+                report.addError(row.line,error);
+            } else {
+                valid.put(userID,row);
+            }
+        }
+        if(valid.isEmpty()) {
+            return;
+        }
+        for(String userID:userDao.findUserIDIn(valid.keySet())) {
+            report.addError(valid.remove(userID).line,"用户账号已存在");
+        }
+        List<User> users=new ArrayList<>(valid.size());
+        for(Row row:valid.values()) {
+            User user=new User();
+            user.setUserID(row.get("userID"));
+            user.setUserName(row.get("userName"));
+            user.setPassword(row.get("password"));
+            user.setEmail(row.get("email"));
+            user.setPhone(row.get("phone"));
+            user.setPicture("");
+            users.add(user);
+        }
+        if(!users.isEmpty()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status->userDao.saveAll(users));
+            valid.keySet().forEach(nameFilter::addUserID);
+            report.setImported(report.getImported()+users.size());
+        }
+    }
+
+    private static String validateVenue(Row row) {
+        if(row.get("venueName").isEmpty()) {
+            return "场馆名称不能为空";
+        }
+        try {
+            if(Integer.parseInt(row.get("price"))<0) {
+                return "价格必须是非负整数";
+            }
+        } catch (NumberFormatException e) {
+            return "价格必须是非负整数";
+        }
+        // 关闭时间不晚于开放时间表示营业到次日，与VenueStatsServiceImpl计算营业时长一致
+        try {
+            LocalTime.parse(row.get("open_time"));
+            LocalTime.parse(row.get("close_time"));
+        } catch (DateTimeParseException e) {
+            return "开放、关闭时间格式应为HH:mm";
+        }
+        return null;
+    }
+
+    private static String validateUser(Row row) {
+        String userID=row.get("userID");
+        if(userID.isEmpty()) {
+            return "用户账号不能为空";
+        }
+        if(userID.length()>25) {
+            return "用户账号不能超过25个字符";
+        }
+        if(row.get("password").isEmpty()) {
+            return "密码不能为空";
+        }
+        return null;
+    }
+
+    /**
+     * 读表头后逐行读取，每CHUNK行交给handler处理一次
+     */
+    private static void read(InputStream in, List<String> required, ImportReport report, Consumer<List<Row>> handler) throws IOException {
+        BufferedReader reader=new BufferedReader(new InputStreamReader(in,StandardCharsets.UTF_8));
+        List<String> header=CsvUtil.readRow(reader);
+        if(header==null) {
+            report.addError(1,"文件为空");
+            return;
+        }
+        Map<String,Integer> columns=new HashMap<>();
+        for(int i=0;i<header.size();i++) {
+            columns.put(header.get(i).replace("\uFEFF","").trim(),i);
+        }
+        for(String column:required) {
+            if(!columns.containsKey(column)) {
+                report.addError(1,"缺少列"+column);
+                return;
+            }
+        }
+        List<Row> chunk=new ArrayList<>(CHUNK);
+        int line=1;
+        List<String> values;
+        while((values=CsvUtil.readRow(reader))!=null) {
+            line++;
+            if(values.size()==1 && values.get(0).trim().isEmpty()) {
+                continue;
+            }
+            report.setTotal(report.getTotal()+1);
+            chunk.add(new Row(line,columns,values));
+            if(chunk.size()==CHUNK) {
+                handler.accept(chunk);
+                chunk=new ArrayList<>(CHUNK);
+            }
+        }
+        if(!chunk.isEmpty()) {
+            handler.accept(chunk);
+        }
+    }
+
+    private static class Row {
+        private final int line;
+        private final Map<String,Integer> columns;
+        private final List<String> values;
+
+        private Row(int line, Map<String,Integer> columns, List<String> values) {
+            this.line=line;
+            this.columns=columns;
+            this.values=values;
+        }
+
+        /**
+         * 缺少的列和空白字段都返回空字符串
+         */
+        private String get(String column) {
+            Integer i=columns.get(column);
+            return i==null || i>=values.size()?"":values.get(i).trim();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.demo.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 基于job_lock表的定时任务锁，多个实例同时触发同一任务时只有一个执行
+ * 用一条带条件的UPDATE抢占：租期已过的行才能被改成自己持有，时间都取数据库的now()，不受各实例时钟影响。
+ * 持有者崩溃时租期到了自动释放，租期应长于任务的最长执行时间。
+ */
+@Component
+public class JobLock {
+    private static final Logger log = LoggerFactory.getLogger(JobLock.class);
+
+    private static final String INIT = "insert ignore into job_lock (name, owner, locked_until) values (?, '', now())";
+    private static final String ACQUIRE = "update job_lock set owner = ?, locked_until = now() + interval ? second " +
+            "where name = ? and locked_until <= now()";
+    private static final String RELEASE = "update job_lock set locked_until = now() where name = ? and owner = ?";
+
+    private final String owner = UUID.randomUUID().toString();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param leaseSeconds 租期，到期前没有unlock也会被其他实例抢占
+     * @return 数据库不可用时返回false，本次不执行
+     */
+    public boolean tryLock(String name, int leaseSeconds) {
+        try {
+            jdbcTemplate.update(INIT, name);
+            return jdbcTemplate.update(ACQUIRE, owner, leaseSeconds, name) == 1;
+        } catch (DataAccessException e) {
+            log.warn("failed to acquire job lock {}", name, e);
+            return false;
+        }
+    }
+
+    public void unlock(String name) {
+        try {
+            jdbcTemplate.update(RELEASE, name, owner);
+        } catch (DataAccessException e) {
+            log.warn("failed to release job lock {}, it expires with the lease", name, e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.demo.service.impl;
+
+import com.demo.service.LoginLimitService;
+import com.demo.utils.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 先按IP限流再按账号限流，IP超限时不消耗账号的令牌
+ */
+@Service
+public class LoginLimitServiceImpl implements LoginLimitService {
+
+    @Value("${login.limit.user.burst:5}")
+    private int userBurst=5;
+    @Value("${login.limit.user.per-minute:5}")
+    private int userPerMinute=5;
+    @Value("${login.limit.ip.burst:20}")
+    private int ipBurst=20;
+    @Value("${login.limit.ip.per-minute:60}")
+    private int ipPerMinute=60;
+    @Value("${login.limit.max-keys:100000}")
+    private int maxKeys=100000;
+
+    private RateLimiter byUser;
+    private RateLimiter byIP;
+
+    private final AtomicLong rejectedByUser=new AtomicLong();
+    private final AtomicLong rejectedByIP=new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        byUser=new RateLimiter(userBurst,userPerMinute,maxKeys);
+        byIP=new RateLimiter(ipBurst,ipPerMinute,maxKeys);
+    }
+
+    @Override
+    public boolean overLimit(String userID, String ip) {
+        if(ip!=null && !byIP.tryAcquire(ip)) {
+            rejectedByIP.incrementAndGet();
+            return true;
+        }
+        // 账号列不区分大小写，Test和test是同一个账号
+        if(userID!=null && !byUser.tryAcquire(userID.trim().toLowerCase(Locale.ROOT))) {
+            rejectedByUser.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long getRejectedByIP() {
+        return rejectedByIP.get();
+    }
+
+    @Override
+    public long getRejectedByUser() {
+        return rejectedByUser.get();
+    }
+}
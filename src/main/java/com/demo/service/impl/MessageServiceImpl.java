@@ -1,17 +1,34 @@
 package com.demo.service.impl;
 
+import com.demo.cache.CountCache;
+import com.demo.cache.MessageFeed;
 import com.demo.dao.MessageDao;
 import com.demo.entity.Message;
 import com.demo.service.MessageService;
+import com.demo.service.MessageVoService;
+import com.demo.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class MessageServiceImpl implements MessageService {
     @Autowired
     private MessageDao messageDao;
+    @Autowired
+    private StateMachine stateMachine;
+    @Autowired
+    private CountCache countCache;
+    @Autowired
+    private MessageFeed messageFeed;
+    @Autowired
+    private MessageVoService messageVoService;
 
     @Override
     public Message findById(int messageID) {
@@ -20,52 +37,85 @@ public class MessageServiceImpl implements MessageService {
 
     @Override
     public Page<Message> findByUser(String userID,Pageable pageable) {
-
-        Page<Message> page=messageDao.findAllByUserID(userID,pageable);
-        return page;
+        return new PageImpl<>(messageDao.findByUserID(userID,pageable).getContent(),pageable,
+                countCache.get(userCountKey(userID),()->messageDao.countByUserID(userID)));
     }
 
     @Override
     public int create(Message message) {
-        return messageDao.save(message).getMessageID();
+        int messageID=messageDao.save(message).getMessageID();
+        countCache.invalidate(userCountKey(message.getUserID()),stateCountKey(message.getState()));
+        return messageID;
     }
 
     @Override
     public void delById(int messageID) {
-        messageDao.deleteById(messageID);
+        Message message=messageDao.findById(messageID)
+                .orElseThrow(()->new EmptyResultDataAccessException("留言不存在",1));
+        messageDao.delete(message);
+        countCache.invalidate(userCountKey(message.getUserID()),stateCountKey(message.getState()));
+        messageFeed.remove(messageID);
     }
 
     @Override
     public void update(Message message) {
         messageDao.save(message);
+        // 修改前的状态无从得知，各状态的总数都失效
+        countCache.invalidate(stateCountKey(STATE_NO_AUDIT),stateCountKey(STATE_PASS),stateCountKey(STATE_REJECT));
+        if(message.getState()==STATE_PASS) {
+            messageFeed.put(messageVoService.returnMessageVoByMessageID(message.getMessageID()));
+        } else {
+            messageFeed.remove(message.getMessageID());
+        }
     }
 
     @Override
     public void confirmMessage(int messageID) {
-        Message message=messageDao.findByMessageID(messageID);
-        if(message==null) {
-            throw new RuntimeException("留言不存在");
-        }
-        messageDao.updateState(STATE_PASS,message.getMessageID());
+        stateMachine.transit(messageID,StateMachine.MessageTransition.CONFIRM);
+        countCache.invalidate(stateCountKey(STATE_NO_AUDIT),stateCountKey(STATE_PASS));
+        messageFeed.put(messageVoService.returnMessageVoByMessageID(messageID));
     }
 
     @Override
     public void rejectMessage(int messageID) {
-        Message message=messageDao.findByMessageID(messageID);
-        if(message==null) {
-            throw new RuntimeException("留言不存在");
-        }
-        messageDao.updateState(STATE_REJECT,message.getMessageID());
+        stateMachine.transit(messageID,StateMachine.MessageTransition.REJECT);
+        countCache.invalidate(stateCountKey(STATE_NO_AUDIT),stateCountKey(STATE_PASS),stateCountKey(STATE_REJECT));
+        messageFeed.remove(messageID);
     }
 
     @Override
     public Page<Message> findWaitState(Pageable pageable) {
-        return messageDao.findAllByState(STATE_NO_AUDIT,pageable);
+        return findStatePage(STATE_NO_AUDIT,pageable);
     }
 
     @Override
     public Page<Message> findPassState(Pageable pageable) {
-        return messageDao.findAllByState(STATE_PASS,pageable);
+        return findStatePage(STATE_PASS,pageable);
+    }
+
+    private Page<Message> findStatePage(int state,Pageable pageable) {
+        return new PageImpl<>(messageDao.findByState(state,pageable).getContent(),pageable,
+                countCache.get(stateCountKey(state),()->messageDao.countByState(state)));
+    }
+
+    private static String userCountKey(String userID) {
+        return "message:user:"+userID;
+    }
+
+    private static String stateCountKey(int state) {
+        return "message:state:"+state;
+    }
+
+    @Override
+    public List<Message> findPassState(PageCursor cursor, int size) {
+        PageCursor c=cursor==null?PageCursor.latest():cursor;
+        return messageDao.findStateMessageBefore(STATE_PASS,c.getTime(),c.getId(),PageRequest.of(0,size));
+    }
+
+    @Override
+    public List<Message> findByUser(String userID, PageCursor cursor, int size) {
+        PageCursor c=cursor==null?PageCursor.latest():cursor;
+        return messageDao.findUserMessageBefore(userID,c.getTime(),c.getId(),PageRequest.of(0,size));
     }
 
 }
@@ -1,16 +1,24 @@
 package com.demo.service.impl;
 
+import com.demo.cache.MessageFeed;
 import com.demo.dao.MessageDao;
 import com.demo.dao.UserDao;
 import com.demo.entity.Message;
 import com.demo.entity.User;
 import com.demo.entity.vo.MessageVo;
+import com.demo.service.MessageService;
 import com.demo.service.MessageVoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class MessageVoServiceImpl implements MessageVoService {
@@ -18,22 +26,59 @@ public class MessageVoServiceImpl implements MessageVoService {
     private MessageDao messageDao;
     @Autowired
     private UserDao userDao;
+    @Autowired
+    private MessageFeed messageFeed;
 
     @Override
     public MessageVo returnMessageVoByMessageID(int messageID) {
         Message message=messageDao.findByMessageID(messageID);
         User user=userDao.findByUserID(message.getUserID());
-        MessageVo messageVo=new MessageVo(message.getMessageID(),user.getUserID(),message.getContent(),message.getTime(),user.getUserName(),user.getPicture(),message.getState());
-
-        return messageVo;
+        return toVo(message,user);
     }
 
+    /**
+     * 批量组装MessageVo：直接使用传入的留言，所有用户通过一次IN查询取回
+     * @param messages
+     * @return
+     */
     @Override
     public List<MessageVo> returnVo(List<Message> messages) {
-        List<MessageVo> list=new ArrayList<>();
-        for(int i=0;i<messages.size();i++){
-            list.add(returnMessageVoByMessageID(messages.get(i).getMessageID()));
+        List<MessageVo> list=new ArrayList<>(messages.size());
+        if(messages.isEmpty()) {
+            return list;
+        }
+        Set<String> userIDs=new LinkedHashSet<>();
+        for(Message message:messages) {
+            userIDs.add(message.getUserID());
+        }
+        Map<String,User> users=new HashMap<>();
+        for(User user:userDao.findByUserIDIn(userIDs)) {
+            users.put(user.getUserID(),user);
+        }
+        for(Message message:messages) {
+            list.add(toVo(message,users.get(message.getUserID())));
         }
         return list;
     }
+
+    @Override
+    public List<MessageVo> findPassPage(int page,int size) {
+        if(page<0 || size<1) {
+            throw new IllegalArgumentException("页码或每页条数不合法");
+        }
+        List<MessageVo> list=messageFeed.page(page,size,()->findPass(0,messageFeed.getMaxSize()+1));
+        return list!=null?list:findPass(page,size);
+    }
+
+    private List<MessageVo> findPass(int page,int size) {
+        Sort sort=Sort.by("time").descending().and(Sort.by("messageID").descending());
+        return returnVo(messageDao.findByState(MessageService.STATE_PASS,PageRequest.of(page,size,sort)).getContent());
+    }
+
+    private MessageVo toVo(Message message,User user) {
+        if(user==null) {
+            return new MessageVo(message.getMessageID(),message.getUserID(),message.getContent(),message.getTime(),null,null,message.getState());
+        }
+        return new MessageVo(message.getMessageID(),user.getUserID(),message.getContent(),message.getTime(),user.getUserName(),user.getPicture(),message.getState());
+    }
 }
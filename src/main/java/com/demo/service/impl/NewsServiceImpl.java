@@ -1,21 +1,44 @@
 package com.demo.service.impl;
 
+import com.demo.cache.CountCache;
 import com.demo.dao.NewsDao;
 import com.demo.entity.News;
 import com.demo.service.NewsService;
+import com.demo.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 
 @Service
 public class NewsServiceImpl implements NewsService {
+    private static final String COUNT_KEY="news";
+
     @Autowired
     private NewsDao newsDao;
 
+    @Autowired
+    private CountCache countCache;
+
     @Override
     public Page<News> findAll(Pageable pageable) {
-        return newsDao.findAll(pageable);
+        return new PageImpl<>(findSlice(pageable).getContent(),pageable,countCache.get(COUNT_KEY,newsDao::count));
+    }
+
+    @Override
+    public Slice<News> findSlice(Pageable pageable) {
+        return newsDao.findAllBy(pageable);
+    }
+
+    @Override
+    public List<News> findAll(PageCursor cursor, int size) {
+        PageCursor c=cursor==null?PageCursor.latest():cursor;
+        return newsDao.findNewsBefore(c.getTime(),c.getId(),PageRequest.of(0,size));
     }
 
     @Override
@@ -25,12 +48,15 @@ public class NewsServiceImpl implements NewsService {
 
     @Override
     public int create(News news) {
-        return newsDao.save(news).getNewsID();
+        int newsID=newsDao.save(news).getNewsID();
+        countCache.invalidate(COUNT_KEY);
+        return newsID;
     }
 
     @Override
     public void delById(int newsID) {
         newsDao.deleteById(newsID);
+        countCache.invalidate(COUNT_KEY);
     }
 
     @Override
@@ -0,0 +1,111 @@
+package com.demo.service.impl;
+
+import com.demo.cache.CountCache;
+import com.demo.dao.OrderDao;
+import com.demo.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 定时把历史订单迁入order_archive
+ * 开始时间早于保留期的已完成、失效订单按批复制到归档表后从order表删除，每批一个事务。
+ * 归档后的订单仍可通过OrderService.findUserOrder查到。多实例部署时由JobLock保证只有一个实例执行。
+ */
+@Component
+public class OrderArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveJob.class);
+
+    private static final String LOCK_NAME = "order-archive";
+
+    private static final List<Integer> ARCHIVABLE_STATES = Arrays.asList(OrderService.STATE_FINISH, OrderService.STATE_REJECT);
+
+    @Value("${order.archive.days:180}")
+    private int retentionDays = 180;
+
+    @Value("${order.archive.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${order.archive.lock-seconds:3600}")
+    private int lockSeconds = 3600;
+
+    @Autowired
+    private OrderDao orderDao;
+
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JobLock jobLock;
+
+    private final AtomicLong archivedCount = new AtomicLong();
+    private volatile long lastRunMillis;
+
+    @Scheduled(cron = "${order.archive.cron:0 30 3 * * *}")
+    public void run() {
+        if (!jobLock.tryLock(LOCK_NAME, lockSeconds)) {
+            log.info("order archive: skipped, locked by another instance");
+            return;
+        }
+        try {
+            archive();
+        } finally {
+            jobLock.unlock(LOCK_NAME);
+        }
+    }
+
+    private void archive() {
+        long begin = System.currentTimeMillis();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int archived = 0;
+        int moved;
+        do {
+            moved = transaction.execute(status -> {
+                List<Integer> ids = orderDao.findArchivable(ARCHIVABLE_STATES,
+                        LocalDate.now().minusDays(retentionDays).atStartOfDay(), batchSize);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                orderDao.copyToArchive(ids);
+                orderDao.deleteIn(ids);
+                return ids.size();
+            });
+            archived += moved;
+        } while (moved == batchSize);
+        if (archived > 0) {
+            // 涉及的用户可能很多，整体失效，每晚只有一次
+            countCache.invalidateAll();
+        }
+        archivedCount.addAndGet(archived);
+        lastRunMillis = System.currentTimeMillis() - begin;
+        log.info("order archive: {} archived in {} ms", archived, lastRunMillis);
+    }
+
+    /**
+     * 累计归档的订单数
+     */
+    public long getArchivedCount() {
+        return archivedCount.get();
+    }
+
+    /**
+     * 最近一次执行的耗时(毫秒)
+     */
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+}
@@ -0,0 +1,131 @@
+package com.demo.service.impl;
+
+import com.demo.cache.CountCache;
+import com.demo.cache.VenueSlotIndex;
+import com.demo.dao.OrderDao;
+import com.demo.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 定时清理过期订单
+ * 开始时间已过仍未审核的订单置为失效，已审核且已结束的订单置为已完成。
+ * 每批先查出至多batchSize个orderID，再用一条带原状态条件的UPDATE转换，每批单独提交，避免长时间锁表。
+ * 多实例部署时由JobLock保证同一时刻只有一个实例转换状态；时段索引是各实例内存中的，
+ * 每个实例都要把起始日期推进到昨天，移除已经结束的订单。
+ */
+@Component
+public class OrderExpiryJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpiryJob.class);
+
+    private static final String LOCK_NAME = "order-expiry";
+
+    @Value("${order.expiry.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${order.expiry.lock-seconds:300}")
+    private int lockSeconds = 300;
+
+    @Autowired
+    private OrderDao orderDao;
+
+    @Autowired
+    private VenueSlotIndex slotIndex;
+
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private JobLock jobLock;
+
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final AtomicLong finishedCount = new AtomicLong();
+    private final AtomicLong runCount = new AtomicLong();
+    private volatile long lastRunMillis;
+
+    @Scheduled(cron = "${order.expiry.cron:0 */10 * * * *}")
+    public void run() {
+        if (jobLock.tryLock(LOCK_NAME, lockSeconds)) {
+            try {
+                expire();
+            } finally {
+                jobLock.unlock(LOCK_NAME);
+            }
+        } else {
+            log.info("order expiry: skipped, locked by another instance");
+        }
+        slotIndex.prune(LocalDate.now().minusDays(1));
+    }
+
+    private void expire() {
+        long begin = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        int finished = 0;
+        List<Integer> ids;
+        do {
+            ids = orderDao.findStartedBefore(OrderService.STATE_NO_AUDIT, now, batchSize);
+            if (!ids.isEmpty()) {
+                expired += orderDao.updateStateIn(OrderService.STATE_REJECT, ids, OrderService.STATE_NO_AUDIT);
+                for (Integer orderID : ids) {
+                    slotIndex.remove(orderID);
+                }
+            }
+        } while (ids.size() == batchSize);
+        do {
+            ids = orderDao.findEndedBefore(OrderService.STATE_WAIT, now, batchSize);
+            if (!ids.isEmpty()) {
+                finished += orderDao.updateStateIn(OrderService.STATE_FINISH, ids, OrderService.STATE_WAIT);
+                for (Integer orderID : ids) {
+                    slotIndex.updateState(orderID, OrderService.STATE_FINISH);
+                }
+            }
+        } while (ids.size() == batchSize);
+        if (expired + finished > 0) {
+            countCache.invalidate(OrderServiceImpl.stateCountKey(OrderService.STATE_NO_AUDIT),
+                    OrderServiceImpl.stateCountKey(OrderService.STATE_REJECT),
+                    OrderServiceImpl.stateCountKey(OrderService.STATE_WAIT),
+                    OrderServiceImpl.stateCountKey(OrderService.STATE_FINISH));
+        }
+        expiredCount.addAndGet(expired);
+        finishedCount.addAndGet(finished);
+        runCount.incrementAndGet();
+        lastRunMillis = System.currentTimeMillis() - begin;
+        log.info("order expiry: {} expired, {} finished in {} ms", expired, finished, lastRunMillis);
+    }
+
+    /**
+     * 累计置为失效的订单数
+     */
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    /**
+     * 累计置为已完成的订单数
+     */
+    public long getFinishedCount() {
+        return finishedCount.get();
+    }
+
+    public long getRunCount() {
+        return runCount.get();
+    }
+
+    /**
+     * 最近一次执行的耗时(毫秒)
+     */
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+}
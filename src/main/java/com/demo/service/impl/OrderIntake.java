@@ -0,0 +1,150 @@
+package com.demo.service.impl;
+
+import com.demo.dao.OrderDao;
+import com.demo.entity.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 预约高峰期的订单写入队列
+ * 提交线程只负责校验和占用时段，订单放入有界队列后由单独的写线程按批取出，
+ * 每批在一个事务中保存，订单主键按号段预先分配，Hibernate会把这一批insert合并成JDBC批量执行，
+ * 每个提交方通过返回的future等待自己的orderID。整批保存失败时逐条重试，一条订单出错不影响同批的其他提交。
+ * MySQL需要在连接串上加rewriteBatchedStatements=true才会合并成多行insert。
+ * 通过order.intake.enabled开启，默认关闭时订单仍逐条保存。
+ */
+@Component
+public class OrderIntake {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntake.class);
+
+    @Value("${order.intake.enabled:false}")
+    private boolean enabled;
+
+    @Value("${order.intake.capacity:1024}")
+    private int capacity = 1024;
+
+    @Value("${order.intake.batch-size:64}")
+    private int batchSize = 64;
+
+    @Autowired
+    private OrderDao orderDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BlockingQueue<Ticket> queue;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        writer = new Thread(this::drain, "order-intake");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        writer.join();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 放入写入队列，队列已满时立即拒绝而不是阻塞请求线程
+     *
+     * @return 写入完成后得到orderID
+     */
+    public CompletableFuture<Integer> submit(Order order) {
+        Ticket ticket = new Ticket(order);
+        if (!running || !queue.offer(ticket)) {
+            throw new RuntimeException("预约人数过多，请稍后再试");
+        }
+        return ticket.future;
+    }
+
+    private void drain() {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                if (queue.isEmpty()) {
+                    break;
+                }
+                continue;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Ticket> batch) {
+        List<Order> orders = new ArrayList<>(batch.size());
+        for (Ticket ticket : batch) {
+            orders.add(ticket.order);
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> orderDao.saveAll(orders));
+            for (Ticket ticket : batch) {
+                ticket.future.complete(ticket.order.getOrderID());
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            // 整批已回滚，逐条重新保存，只有出错的那条返回异常
+            // 回滚后订单仍带着这一批分配的orderID，不清零的话save会当作已有记录merge，以另一个ID插入
+            log.warn("order intake: batch of {} failed, retrying one by one", batch.size(), e);
+            for (Ticket ticket : batch) {
+                try {
+                    ticket.order.setOrderID(0);
+                    Order saved = transaction.execute(status -> orderDao.save(ticket.order));
+                    ticket.future.complete(saved.getOrderID());
+                } catch (RuntimeException rowError) {
+                    ticket.future.completeExceptionally(rowError);
+                }
+            }
+        }
+    }
+
+    private static class Ticket {
+        private final Order order;
+        private final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        private Ticket(Order order) {
+            this.order = order;
+        }
+    }
+}
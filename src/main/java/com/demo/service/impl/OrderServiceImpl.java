@@ -1,48 +1,187 @@
 package com.demo.service.impl;
 
+import com.demo.cache.CountCache;
+import com.demo.cache.VenueCache;
+import com.demo.cache.VenueSlotIndex;
 import com.demo.dao.OrderDao;
-
-import com.demo.dao.VenueDao;
 import com.demo.entity.Venue;
 import com.demo.entity.Order;
 import com.demo.service.OrderService;
+import com.demo.service.VenueStatsService;
+import com.demo.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import javax.transaction.Transactional;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 @Service
 public class OrderServiceImpl implements OrderService {
+    /**
+     * MySQL datetime的取值范围，用于不限日期的区间查询
+     */
+    private static final LocalDateTime MIN_DATETIME=LocalDateTime.of(1000,1,1,0,0);
+    private static final LocalDateTime MAX_DATETIME=LocalDateTime.of(9999,12,31,23,59,59);
+
     @Autowired
     private OrderDao orderDao;
 
     @Autowired
-    private VenueDao venueDao;
+    private VenueCache venueCache;
+
+    @Autowired
+    private VenueSlotIndex slotIndex;
+
+    @Autowired
+    private StateMachine stateMachine;
+
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private OrderIntake orderIntake;
+
+    @Autowired
+    private VenueStatsService venueStatsService;
 
     @Override
     public Order findById(int OrderID) {
         return orderDao.getOne(OrderID);
     }
 
+    /**
+     * 返回与[startTime, startTime2)有交集的订单，索引覆盖的日期不访问数据库
+     */
     @Override
     public List<Order> findDateOrder(int venueID, LocalDateTime startTime, LocalDateTime startTime2) {
-        return orderDao.findByVenueIDAndStartTimeIsBetween(venueID,startTime,startTime2);
+        if(!slotIndex.covers(startTime.toLocalDate())) {
+            return orderDao.findByVenueIDAndStartTimeIsBetween(venueID,startTime,startTime2);
+        }
+        List<Order> list=new ArrayList<>();
+        Set<Integer> seen=new HashSet<>();
+        for(LocalDate day=startTime.toLocalDate();day.atStartOfDay().isBefore(startTime2);day=day.plusDays(1)) {
+            for(Order order:slotIndex.orders(venueID,day)) {
+                LocalDateTime end=order.getStartTime().plusHours(order.getHours());
+                if(end.isAfter(startTime) && order.getStartTime().isBefore(startTime2) && seen.add(order.getOrderID())) {
+                    list.add(order);
+                }
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public int findOccupiedSlots(int venueID, LocalDate date) {
+        if(!slotIndex.covers(date)) {
+            int mask=0;
+            LocalDateTime dayStart=date.atStartOfDay();
+            for(Order order:orderDao.findByVenueIDAndStartTimeIsBetween(venueID,dayStart.minusDays(1),dayStart.plusDays(1))) {
+                if(VenueSlotIndex.isOccupying(order.getState())) {
+                    mask|=VenueSlotIndex.maskOf(order.getStartTime(),order.getHours(),date);
+                }
+            }
+            return mask;
+        }
+        return slotIndex.occupied(venueID,date);
     }
 
+    /**
+     * 索引覆盖的日期直接读位图，否则用一条按场馆分组的区间查询计算
+     */
+    @Override
+    public Map<Integer,int[]> findSchedule(Collection<Integer> venueIDs, LocalDate startDate, int days) {
+        Map<Integer,int[]> schedule=new LinkedHashMap<>();
+        for(Integer venueID:venueIDs) {
+            schedule.put(venueID,new int[days]);
+        }
+        if(schedule.isEmpty() || days<=0) {
+            return schedule;
+        }
+        if(slotIndex.covers(startDate)) {
+            for(Map.Entry<Integer,int[]> entry:schedule.entrySet()) {
+                for(int i=0;i<days;i++) {
+                    entry.getValue()[i]=slotIndex.occupied(entry.getKey(),startDate.plusDays(i));
+                }
+            }
+            return schedule;
+        }
+        LocalDateTime from=startDate.atStartOfDay();
+        List<Order> list=orderDao.findByVenueIDInAndStateInAndStartTimeBetween(schedule.keySet(),
+                Arrays.asList(STATE_NO_AUDIT,STATE_WAIT,STATE_FINISH),from.minusDays(1),from.plusDays(days));
+        for(Order order:list) {
+            int[] masks=schedule.get(order.getVenueID());
+            LocalDate last=order.getStartTime().plusHours(order.getHours()).toLocalDate();
+            for(LocalDate day=order.getStartTime().toLocalDate();!day.isAfter(last);day=day.plusDays(1)) {
+                int i=(int)ChronoUnit.DAYS.between(startDate,day);
+                if(i>=0 && i<days) {
+                    masks[i]|=VenueSlotIndex.maskOf(order.getStartTime(),order.getHours(),day);
+                }
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * 先分页读order表，翻过用户的全部在线订单后接着读order_archive
+     */
     @Override
     public Page<Order> findUserOrder(String userID, Pageable pageable) {
-        return orderDao.findAllByUserID(userID,pageable);
+        long live=countCache.get(userCountKey(userID),()->orderDao.countByUserID(userID));
+        long archived=countCache.get("order:archive:user:"+userID,()->orderDao.countArchivedByUserID(userID));
+        List<Order> content=new ArrayList<>(pageable.getPageSize());
+        if(pageable.getOffset()<live) {
+            content.addAll(findUserOrderSlice(userID,pageable).getContent());
+        }
+        int missing=pageable.getPageSize()-content.size();
+        if(missing>0 && archived>0) {
+            content.addAll(orderDao.findArchivedByUserID(userID,missing,Math.max(0,pageable.getOffset()-live)));
+        }
+        return new PageImpl<>(content,pageable,live+archived);
+    }
+
+    @Override
+    public Slice<Order> findUserOrderSlice(String userID, Pageable pageable) {
+        return orderDao.findByUserID(userID,pageable);
+    }
+
+    @Override
+    public List<Order> findUserOrder(String userID, PageCursor cursor, int size) {
+        PageCursor c=cursor==null?PageCursor.latest():cursor;
+        List<Order> live=orderDao.findUserOrderBefore(userID,c.getTime(),c.getId(),size);
+        if(countCache.get("order:archive:user:"+userID,()->orderDao.countArchivedByUserID(userID))==0) {
+            return live;
+        }
+        List<Order> merged=new ArrayList<>(live);
+        merged.addAll(orderDao.findArchivedUserOrderBefore(userID,c.getTime(),c.getId(),size));
+        merged.sort(Comparator.comparing(Order::getOrderTime,Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                .thenComparing(Order::getOrderID).reversed());
+        return merged.size()>size?new ArrayList<>(merged.subList(0,size)):merged;
     }
 
 
     @Override
     public void updateOrder(int orderID, String venueName, LocalDateTime startTime, int hours,String userID)  {
-        Venue venue =venueDao.findByVenueName(venueName);
+        Venue venue =venueCache.findByVenueName(venueName);
         Order order=orderDao.findByOrderID(orderID);
+        Order before=isCounted(order.getState())?copy(order):null;
+        String oldUserID=order.getUserID();
+        int oldState=order.getState();
         order.setState(STATE_NO_AUDIT);
         order.setHours(hours);
         order.setVenueID(venue.getVenueID());
@@ -51,13 +190,17 @@ public class OrderServiceImpl implements OrderService {
         order.setUserID(userID);
         order.setTotal(hours* venue.getPrice());
 
-        orderDao.save(order);
+        saveClaimed(order);
+        if(before!=null) {
+            venueStatsService.record(before,-1);
+        }
+        countCache.invalidate(userCountKey(oldUserID),userCountKey(userID),stateCountKey(oldState),stateCountKey(STATE_NO_AUDIT));
     }
 
     @Override
     public void submit(String venueName, LocalDateTime startTime, int hours, String userID) {
 
-        Venue venue =venueDao.findByVenueName(venueName);
+        Venue venue =venueCache.findByVenueName(venueName);
 
         Order order=new Order();
         order.setState(STATE_NO_AUDIT);
@@ -67,48 +210,172 @@ public class OrderServiceImpl implements OrderService {
         order.setStartTime(startTime);
         order.setUserID(userID);
         order.setTotal(hours* venue.getPrice());
-        orderDao.save(order);
+        saveClaimed(order);
+        countCache.invalidate(userCountKey(userID),stateCountKey(STATE_NO_AUDIT));
+    }
+
+    /**
+     * 先在索引中原子地占用时段再落库，避免并发提交的订单时段重叠
+     * @param order
+     */
+    private void saveClaimed(Order order) {
+        int claim=slotIndex.claim(order.getVenueID(),order.getStartTime(),order.getHours(),order.getOrderID());
+        if(claim==0) {
+            throw new RuntimeException("该时段已被预约");
+        }
+        try {
+            if(order.getOrderID()==0 && orderIntake.isEnabled()) {
+                slotIndex.put(awaitQueued(order));
+            } else {
+                slotIndex.put(orderDao.save(order));
+            }
+        } finally {
+            slotIndex.release(claim);
+        }
+    }
+
+    /**
+     * 新订单交给写入队列批量插入，当前线程等待写入完成
+     * @param order
+     * @return
+     */
+    private Order awaitQueued(Order order) {
+        try {
+            order.setOrderID(orderIntake.submit(order).get());
+            return order;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("预约失败",e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("预约失败",e.getCause());
+        }
     }
 
     @Override
     public void delOrder(int orderID) {
+        Order order=orderDao.findByOrderID(orderID);
+        Order before=order!=null && isCounted(order.getState())?copy(order):null;
         orderDao.deleteById(orderID);
+        if(before!=null) {
+            venueStatsService.record(before,-1);
+        }
+        slotIndex.remove(orderID);
+        if(order!=null) {
+            countCache.invalidate(userCountKey(order.getUserID()),stateCountKey(order.getState()));
+        }
     }
 
     @Override
+    @Transactional
     public void confirmOrder(int orderID) {
-        Order order=orderDao.findByOrderID(orderID);
-        if(order == null) {
-            throw new RuntimeException("订单不存在");
-        }
-        orderDao.updateState(STATE_WAIT,order.getOrderID());
+        stateMachine.transit(orderID,StateMachine.OrderTransition.CONFIRM);
+        venueStatsService.record(orderID,1);
+        slotIndex.updateState(orderID,STATE_WAIT);
+        countCache.invalidate(stateCountKey(STATE_NO_AUDIT),stateCountKey(STATE_WAIT));
     }
 
     @Override
     public void finishOrder(int orderID) {
-        Order order=orderDao.findByOrderID(orderID);
-        if(order == null) {
-            throw new RuntimeException("订单不存在");
-        }
-        orderDao.updateState(STATE_FINISH,order.getOrderID());
+        stateMachine.transit(orderID,StateMachine.OrderTransition.FINISH);
+        slotIndex.updateState(orderID,STATE_FINISH);
+        countCache.invalidate(stateCountKey(STATE_WAIT),stateCountKey(STATE_FINISH));
     }
 
     @Override
+    @Transactional
     public void rejectOrder(int orderID) {
-        Order order=orderDao.findByOrderID(orderID);
-        if(order == null) {
-            throw new RuntimeException("订单不存在");
+        // 由成功的那条UPDATE判断原来是否已审核，不需要先查询订单
+        if(stateMachine.transitAny(orderID,StateMachine.OrderTransition.REVOKE,StateMachine.OrderTransition.REJECT)
+                ==StateMachine.OrderTransition.REVOKE) {
+            venueStatsService.record(orderID,-1);
         }
-        orderDao.updateState(STATE_REJECT,order.getOrderID());
+        slotIndex.remove(orderID);
+        countCache.invalidate(stateCountKey(STATE_NO_AUDIT),stateCountKey(STATE_WAIT),stateCountKey(STATE_REJECT));
+    }
+
+    @Override
+    @Transactional
+    public Map<Integer,Boolean> confirmOrders(Collection<Integer> orderIDs) {
+        return transitPending(orderIDs,STATE_WAIT);
+    }
+
+    @Override
+    @Transactional
+    public Map<Integer,Boolean> rejectOrders(Collection<Integer> orderIDs) {
+        return transitPending(orderIDs,STATE_REJECT);
+    }
+
+    /**
+     * 锁定仍处于未审核状态的订单，再用一条UPDATE ... WHERE orderID IN (...) AND state=1完成状态转换
+     * @param orderIDs
+     * @param state
+     * @return
+     */
+    private Map<Integer,Boolean> transitPending(Collection<Integer> orderIDs,int state) {
+        Map<Integer,Boolean> result=new LinkedHashMap<>();
+        for(Integer orderID:orderIDs) {
+            result.put(orderID,false);
+        }
+        if(result.isEmpty()) {
+            return result;
+        }
+        List<Order> pending=orderDao.findByOrderIDInAndState(result.keySet(),STATE_NO_AUDIT);
+        if(pending.isEmpty()) {
+            return result;
+        }
+        List<Integer> pendingIDs=new ArrayList<>(pending.size());
+        for(Order order:pending) {
+            pendingIDs.add(order.getOrderID());
+        }
+        orderDao.updateStateIn(state,pendingIDs,STATE_NO_AUDIT);
+        for(Order order:pending) {
+            result.put(order.getOrderID(),true);
+            order.setState(state);
+            slotIndex.put(order);
+            if(isCounted(state)) {
+                venueStatsService.record(order,1);
+            }
+        }
+        countCache.invalidate(stateCountKey(STATE_NO_AUDIT),stateCountKey(state));
+        return result;
+    }
+
+    /**
+     * 已审核、已完成的订单计入场馆每日汇总
+     */
+    private static boolean isCounted(int state) {
+        return state==STATE_WAIT || state==STATE_FINISH;
+    }
+
+    public static String userCountKey(String userID) {
+        return "order:user:"+userID;
+    }
+
+    public static String stateCountKey(int state) {
+        return "order:state:"+state;
+    }
+
+    private static Order copy(Order order) {
+        return new Order(order.getOrderID(),order.getUserID(),order.getVenueID(),order.getState(),
+                order.getOrderTime(),order.getStartTime(),order.getHours(),order.getTotal());
     }
 
     @Override
     public Page<Order> findNoAuditOrder(Pageable pageable) {
-        return orderDao.findAllByState(STATE_NO_AUDIT,pageable);
+        return new PageImpl<>(orderDao.findByState(STATE_NO_AUDIT,pageable).getContent(),pageable,
+                countCache.get(stateCountKey(STATE_NO_AUDIT),()->orderDao.countByState(STATE_NO_AUDIT)));
+    }
+
+    @Override
+    public List<Order> findNoAuditOrder(PageCursor cursor, int size) {
+        PageCursor c=cursor==null?PageCursor.latest():cursor;
+        return orderDao.findStateOrderBefore(STATE_NO_AUDIT,c.getTime(),c.getId(),size);
     }
 
     @Override
-    public List<Order> findAuditOrder() {
-        return orderDao.findAudit(STATE_WAIT,STATE_FINISH);
+    public Page<Order> findAuditOrder(LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        LocalDateTime from=startDate==null?MIN_DATETIME:startDate.atStartOfDay();
+        LocalDateTime to=endDate==null?MAX_DATETIME:endDate.plusDays(1).atStartOfDay().minusNanos(1000);
+        return orderDao.findAllByStateInAndStartTimeBetween(Arrays.asList(STATE_WAIT,STATE_FINISH),from,to,pageable);
     }
 }
@@ -0,0 +1,82 @@
+package com.demo.service.impl;
+
+import com.demo.dao.MessageDao;
+import com.demo.dao.OrderDao;
+import com.demo.service.MessageService;
+import com.demo.service.OrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 订单和留言的状态机
+ * 每次状态转换都是一条带当前状态条件的UPDATE，由影响行数判断是否成功；
+ * 只有失败时才再查询一次，用于区分记录不存在和状态不允许。
+ */
+@Component
+public class StateMachine {
+
+    public enum OrderTransition {
+        CONFIRM(OrderService.STATE_WAIT, OrderService.STATE_NO_AUDIT),
+        FINISH(OrderService.STATE_FINISH, OrderService.STATE_WAIT),
+        REJECT(OrderService.STATE_REJECT, OrderService.STATE_NO_AUDIT),
+        /**
+         * 驳回已审核的订单，需要从场馆汇总中扣除
+         */
+        REVOKE(OrderService.STATE_REJECT, OrderService.STATE_WAIT);
+
+        public final int target;
+        public final List<Integer> from;
+
+        OrderTransition(int target, Integer... from) {
+            this.target = target;
+            this.from = Collections.unmodifiableList(Arrays.asList(from));
+        }
+    }
+
+    public enum MessageTransition {
+        CONFIRM(MessageService.STATE_PASS, MessageService.STATE_NO_AUDIT),
+        REJECT(MessageService.STATE_REJECT, MessageService.STATE_NO_AUDIT, MessageService.STATE_PASS);
+
+        public final int target;
+        public final List<Integer> from;
+
+        MessageTransition(int target, Integer... from) {
+            this.target = target;
+            this.from = Collections.unmodifiableList(Arrays.asList(from));
+        }
+    }
+
+    @Autowired
+    private OrderDao orderDao;
+
+    @Autowired
+    private MessageDao messageDao;
+
+    public void transit(int orderID, OrderTransition transition) {
+        if (orderDao.transitState(transition.target, orderID, transition.from) == 0) {
+            throw new RuntimeException(orderDao.findByOrderID(orderID) == null ? "订单不存在" : "订单状态不允许该操作");
+        }
+    }
+
+    /**
+     * 依次尝试各个转换，返回成功的那一个，都不成功时抛出异常
+     */
+    public OrderTransition transitAny(int orderID, OrderTransition... transitions) {
+        for (OrderTransition transition : transitions) {
+            if (orderDao.transitState(transition.target, orderID, transition.from) == 1) {
+                return transition;
+            }
+        }
+        throw new RuntimeException(orderDao.findByOrderID(orderID) == null ? "订单不存在" : "订单状态不允许该操作");
+    }
+
+    public void transit(int messageID, MessageTransition transition) {
+        if (messageDao.transitState(transition.target, messageID, transition.from) == 0) {
+            throw new RuntimeException(messageDao.findByMessageID(messageID) == null ? "留言不存在" : "留言状态不允许该操作");
+        }
+    }
+}
@@ -1,18 +1,42 @@
 package com.demo.service.impl;
 
+import com.demo.cache.CountCache;
+import com.demo.cache.MessageFeed;
+import com.demo.cache.NameFilter;
+import com.demo.cache.UserCache;
 import com.demo.dao.UserDao;
 import com.demo.entity.User;
 import com.demo.service.UserService;
+import com.demo.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class UserServiceImpl implements UserService {
+    private static final String COUNT_KEY="user";
+
     @Autowired
     private UserDao userDao;
 
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private NameFilter nameFilter;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MessageFeed messageFeed;
+
     @Override
     public User findByUserID(String userID) {
         return userDao.findByUserID(userID);
@@ -25,7 +49,18 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Page<User> findByUserID(Pageable pageable) {
-        return userDao.findAllByIsadmin(0,pageable);
+        return new PageImpl<>(findUserSlice(pageable).getContent(),pageable,countCache.get(COUNT_KEY,()->userDao.countByIsadmin(0)));
+    }
+
+    @Override
+    public Slice<User> findUserSlice(Pageable pageable) {
+        return userDao.findByIsadmin(0,pageable);
+    }
+
+    @Override
+    public List<User> findByUserID(PageCursor cursor, int size) {
+        PageCursor c=cursor==null?PageCursor.first():cursor;
+        return userDao.findByIsadminAndIdGreaterThanOrderByIdAsc(0,c.getId(),PageRequest.of(0,size));
     }
 
     @Override
@@ -35,23 +70,36 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public int create(User user) {
-        userDao.save(user);
-        return userDao.findAll().size();
+        int id=userDao.save(user).getId();
+        nameFilter.addUserID(user.getUserID());
+        countCache.invalidate(COUNT_KEY);
+        return id;
     }
 
     @Override
     public void delByID(int id) {
         userDao.deleteById(id);
+        countCache.invalidate(COUNT_KEY);
+        userCache.invalidateAll();
+        messageFeed.invalidate();
     }
 
 
     @Override
     public void updateUser(User user) {
         userDao.save(user);
+        nameFilter.addUserID(user.getUserID());
+        // 管理员可以修改账号，旧账号对应的缓存项无从得知，直接全部清空
+        userCache.invalidateAll();
+        // 留言列表中带有用户名和头像
+        messageFeed.invalidate();
     }
 
     @Override
     public int countUserID(String userID) {
-        return userDao.countByUserID(userID);
+        if(!nameFilter.mightContainUserID(userID)) {
+            return 0;
+        }
+        return userDao.existsByUserID(userID)?1:0;
     }
 }
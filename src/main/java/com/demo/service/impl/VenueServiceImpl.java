@@ -1,57 +1,97 @@
 package com.demo.service.impl;
 
+import com.demo.cache.CountCache;
+import com.demo.cache.NameFilter;
+import com.demo.cache.VenueCache;
 import com.demo.dao.VenueDao;
 import com.demo.entity.Venue;
 import com.demo.service.VenueService;
+import com.demo.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
 public class VenueServiceImpl implements VenueService {
+    private static final String COUNT_KEY="venue";
+
     @Autowired
     private VenueDao venueDao;
 
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private VenueCache venueCache;
+
+    @Autowired
+    private NameFilter nameFilter;
+
     @Override
     public Venue findByVenueID(int id) {
-        return venueDao.getOne(id);
+        return venueCache.findByVenueID(id);
     }
 
     @Override
     public Venue findByVenueName(String venueName) {
-        return venueDao.findByVenueName(venueName);
+        return venueCache.findByVenueName(venueName);
     }
 
     @Override
     public Page<Venue> findAll(Pageable pageable) {
-        return venueDao.findAll(pageable);
+        return new PageImpl<>(findSlice(pageable).getContent(),pageable,countCache.get(COUNT_KEY,venueDao::count));
+    }
+
+    @Override
+    public Slice<Venue> findSlice(Pageable pageable) {
+        return venueDao.findAllBy(pageable);
     }
 
     @Override
     public List<Venue> findAll() {
-        return venueDao.findAll();
+        return venueCache.findAll();
+    }
+
+    @Override
+    public List<Venue> findAll(PageCursor cursor, int size) {
+        PageCursor c=cursor==null?PageCursor.first():cursor;
+        return venueDao.findByVenueIDGreaterThanOrderByVenueIDAsc(c.getId(),PageRequest.of(0,size));
     }
 
     @Override
     public int create(Venue venue) {
-        return venueDao.save(venue).getVenueID();
+        int venueID=venueDao.save(venue).getVenueID();
+        nameFilter.addVenueName(venue.getVenueName());
+        countCache.invalidate(COUNT_KEY);
+        venueCache.invalidateAll();
+        return venueID;
     }
 
     @Override
     public void update(Venue venue) {
         venueDao.save(venue);
+        nameFilter.addVenueName(venue.getVenueName());
+        venueCache.invalidateAll();
     }
 
     @Override
     public void delById(int id) {
         venueDao.deleteById(id);
+        countCache.invalidate(COUNT_KEY);
+        venueCache.invalidateAll();
     }
 
     @Override
     public int countVenueName(String venueName) {
-        return venueDao.countByVenueName(venueName);
+        if(!nameFilter.mightContainVenueName(venueName)) {
+            return 0;
+        }
+        return venueCache.findByVenueName(venueName)==null?0:1;
     }
 }
@@ -0,0 +1,106 @@
+package com.demo.service.impl;
+
+import com.demo.cache.VenueCache;
+import com.demo.dao.VenueDailyStatsDao;
+import com.demo.entity.Order;
+import com.demo.entity.Venue;
+import com.demo.entity.VenueDailyStats;
+import com.demo.entity.vo.VenueStatsVo;
+import com.demo.service.VenueStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class VenueStatsServiceImpl implements VenueStatsService {
+    private static final Logger log=LoggerFactory.getLogger(VenueStatsServiceImpl.class);
+
+    @Autowired
+    private VenueDailyStatsDao venueDailyStatsDao;
+    @Autowired
+    private VenueCache venueCache;
+
+    @Value("${stats.reconcile.days-back:7}")
+    private int reconcileDaysBack=7;
+
+    @Value("${stats.reconcile.days-ahead:60}")
+    private int reconcileDaysAhead=60;
+
+    @Override
+    public List<VenueStatsVo> findStats(LocalDate startDate, LocalDate endDate) {
+        Map<Integer,Venue> venues=new HashMap<>();
+        Map<Integer,Double> openHours=new HashMap<>();
+        for(Venue venue:venueCache.findAll()) {
+            venues.put(venue.getVenueID(),venue);
+            openHours.put(venue.getVenueID(),openHours(venue));
+        }
+        List<VenueStatsVo> list=new ArrayList<>();
+        for(VenueDailyStats stats:venueDailyStatsDao.findByDayBetweenOrderByDayAscVenueIDAsc(startDate,endDate)) {
+            Venue venue=venues.get(stats.getVenueID());
+            double hours=openHours.getOrDefault(stats.getVenueID(),0.0);
+            list.add(new VenueStatsVo(stats.getVenueID(),venue==null?null:venue.getVenueName(),stats.getDay(),
+                    stats.getOrders(),stats.getHours(),stats.getRevenue(),hours==0?0:stats.getHours()/hours));
+        }
+        return list;
+    }
+
+    @Override
+    public void record(Order order, int sign) {
+        venueDailyStatsDao.add(order.getVenueID(),order.getStartTime().toLocalDate(),sign,sign*order.getHours(),sign*order.getTotal());
+    }
+
+    @Override
+    public void record(int orderID, int sign) {
+        venueDailyStatsDao.addOrder(orderID,sign);
+    }
+
+    @Override
+    @Transactional
+    public void reconcile(LocalDate startDate, LocalDate endDate) {
+        venueDailyStatsDao.deleteDays(startDate,endDate.plusDays(1));
+        venueDailyStatsDao.rebuildDays(startDate.atStartOfDay(),endDate.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * 每晚核对最近及未来一段时间的汇总，修正增量更新中因并发或失败产生的偏差
+     */
+    @Scheduled(cron = "${stats.reconcile.cron:0 0 2 * * *}")
+    @Transactional
+    public void reconcileRecent() {
+        LocalDate today=LocalDate.now();
+        reconcile(today.minusDays(reconcileDaysBack),today.plusDays(reconcileDaysAhead));
+    }
+
+    /**
+     * 场馆数据中的时间可能带空格；关闭时间早于开放时间表示营业到次日
+     */
+    private static double openHours(Venue venue) {
+        try {
+            long minutes=ChronoUnit.MINUTES.between(parseTime(venue.getOpen_time()),parseTime(venue.getClose_time()));
+            return (minutes<=0?minutes+24*60:minutes)/60.0;
+        } catch (DateTimeParseException e) {
+            log.warn("场馆{}的开放时间\"{}\"、关闭时间\"{}\"无法解析，使用率按0计算",venue.getVenueID(),venue.getOpen_time(),venue.getClose_time());
+            return 0;
+        }
+    }
+
+    private static LocalTime parseTime(String time) {
+        if(time==null) {
+            throw new DateTimeParseException("时间为空","",0);
+        }
+        return LocalTime.parse(time.trim());
+    }
+}
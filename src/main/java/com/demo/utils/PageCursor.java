@@ -0,0 +1,82 @@
+package com.demo.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 键集分页游标，由排序键和主键组成，对外以不透明字符串传递
+ * 只按主键排序的列表time为null
+ */
+@Data
+@AllArgsConstructor
+public class PageCursor {
+
+    /**
+     * 下一页游标通过响应头返回，不改变列表接口的响应体
+     */
+    public static final String HEADER = "X-Next-Cursor";
+
+    private LocalDateTime time;
+
+    private int id;
+
+    /**
+     * 按时间倒序列表的第一页
+     */
+    public static PageCursor latest() {
+        return new PageCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Integer.MAX_VALUE);
+    }
+
+    /**
+     * 按主键正序列表的第一页
+     */
+    public static PageCursor first() {
+        return new PageCursor(null, 0);
+    }
+
+    public String encode() {
+        String raw = (time == null ? "" : time.toString()) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，空串表示第一页并返回null
+     *
+     * @param cursor
+     * @return
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf('|');
+            String time = raw.substring(0, split);
+            return new PageCursor(time.isEmpty() ? null : LocalDateTime.parse(time), Integer.parseInt(raw.substring(split + 1)));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "无效的cursor");
+        }
+    }
+
+    /**
+     * 列表装满一页时，把最后一条记录的游标写入响应头
+     *
+     * @return 原列表
+     */
+    public static <T> List<T> next(List<T> list, int size, Function<T, PageCursor> key, HttpServletResponse response) {
+        if (!list.isEmpty() && list.size() >= size) {
+            response.setHeader(HEADER, key.apply(list.get(list.size() - 1)).encode());
+        }
+        return list;
+    }
+}
@@ -0,0 +1,98 @@
+package com.demo.utils;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按键限流的令牌桶，无锁实现
+ * 每个桶只保存一个long：桶被补满的时刻。取令牌时用CAS把它后移一个令牌的间隔，
+ * 后移后超出当前时刻burst个间隔以上说明令牌已用完。
+ * 键的数量有上限，超过时清掉已经补满的桶（与新建的桶等价）；仍然超过时，新的键共用一个溢出桶。
+ * 清理需要遍历所有桶，每秒至多执行一次，大量新键涌入时不会让每次取令牌都变成全量遍历。
+ */
+public class RateLimiter {
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicLong sweeps = new AtomicLong();
+    private volatile long lastSweep;
+
+    /**
+     * @param burst     桶容量，连续允许的次数
+     * @param perMinute 每分钟补充的令牌数
+     * @param maxKeys   最多保存的键数
+     */
+    public RateLimiter(int burst, int perMinute, int maxKeys) {
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(perMinute, 1);
+        this.burstNanos = intervalNanos * Math.max(burst, 1);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * 取一个令牌，令牌用完时返回false
+     */
+    public boolean tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    boolean tryAcquire(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                sweep(now);
+            }
+            bucket = buckets.size() < maxKeys
+                    ? buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE))
+                    : overflow;
+        }
+        while (true) {
+            long full = bucket.get();
+            long next = (full == Long.MIN_VALUE || full - now < 0 ? now : full) + intervalNanos;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return true;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getSweeps() {
+        return sweeps.get();
+    }
+
+    /**
+     * 清掉已经补满的桶，同一时刻只有一个线程执行，距上次清理不足SWEEP_INTERVAL_NANOS时跳过
+     */
+    private void sweep(long now) {
+        if (sweeps.get() > 0 && now - lastSweep < SWEEP_INTERVAL_NANOS || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lastSweep = now;
+            sweeps.incrementAndGet();
+            Iterator<AtomicLong> it = buckets.values().iterator();
+            while (it.hasNext()) {
+                long full = it.next().get();
+                if (full == Long.MIN_VALUE || full - now <= 0) {
+                    it.remove();
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
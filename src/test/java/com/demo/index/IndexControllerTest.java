@@ -6,7 +6,6 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.demo.controller.IndexController;
-import com.demo.entity.Message;
 import com.demo.entity.News;
 import com.demo.entity.User;
 import com.demo.entity.Venue;
@@ -65,16 +64,13 @@ public class IndexControllerTest {
         try {
             Pageable venue_pageable= PageRequest.of(0,5, Sort.by("venueID").ascending());
             Pageable news_pageable= PageRequest.of(0,5, Sort.by("time").descending());
-            Pageable message_pageable= PageRequest.of(0,5, Sort.by("time").descending());
 
             // empty data
             when(newsService.findAll(news_pageable))
                     .thenReturn(new PageImpl<>(Collections.emptyList(), news_pageable, 0));
             when(venueService.findAll(venue_pageable))
                     .thenReturn(new PageImpl<>(Collections.emptyList(), venue_pageable, 0));
-            when(messageService.findPassState(message_pageable))
-                    .thenReturn(new PageImpl<>(Collections.emptyList(), message_pageable, 0));
-            when(messageVoService.returnVo(anyList()))
+            when(messageVoService.findPassPage(0, 5))
                     .thenReturn(new ArrayList<>());
 
             mockMvc.perform(get("/index"))
@@ -94,25 +90,20 @@ public class IndexControllerTest {
         try {
             Pageable venue_pageable= PageRequest.of(0,5, Sort.by("venueID").ascending());
             Pageable news_pageable= PageRequest.of(0,5, Sort.by("time").descending());
-            Pageable message_pageable= PageRequest.of(0,5, Sort.by("time").descending());
 
             List<News> newsList = new ArrayList<>();
             List<Venue> venueList = new ArrayList<>();
             List<MessageVo> messageVoList = new ArrayList<>();
-            List<Message> messageList = new ArrayList<>();
-            Page<Message> messagePage;
 
             // not empty data
             newsList.add(new News(1, "title", "content", LocalDateTime.now()));
             newsList.add(new News(2, "title", "content", LocalDateTime.now()));
             venueList.add(new Venue(1, "venue_name", "description", 1, "picture", "address", "open_time", "close_time"));
             messageVoList.add(new MessageVo(1,"title","content",LocalDateTime.now(),"username","email",1));
-            messageList.add(new Message(1,"userID","content",LocalDateTime.now(),1));
 
             when(newsService.findAll(news_pageable)).thenReturn(new PageImpl<>(newsList, news_pageable, 1));
             when(venueService.findAll(venue_pageable)).thenReturn(new PageImpl<>(venueList, venue_pageable, 2));
-            when(messageService.findPassState(message_pageable)).thenReturn(new PageImpl<>(messageList, message_pageable, 10));
-            when(messageVoService.returnVo(anyList())).thenReturn(messageVoList);
+            when(messageVoService.findPassPage(0, 5)).thenReturn(messageVoList);
 
             mockMvc.perform(get("/index"))
                     .andExpect(status().isOk())
@@ -142,7 +133,8 @@ public class IndexControllerTest {
     @Test
     public void testAdminIndex() throws Exception {
         try {
-            mockMvc.perform(get("/admin_index"))
+            User admin = new User(1, "adminID", "adminName", "adminPassword", "admin@example.com", "15649851625", 1, "adminPic");
+            mockMvc.perform(get("/admin_index").sessionAttr("admin", admin))
                     .andExpect(status().isOk())
                     .andExpect(view().name("admin/admin_index"));
         } catch (Exception e) {
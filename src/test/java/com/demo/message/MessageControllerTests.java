@@ -6,6 +6,7 @@ import com.demo.entity.User;
 import com.demo.entity.vo.MessageVo;
 import com.demo.service.MessageService;
 import com.demo.service.MessageVoService;
+import com.demo.utils.PageCursor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -107,20 +108,18 @@ public class MessageControllerTests {
 
     @Test
     public void testMessageListWithValidPage() throws Exception{
-        List<Message> nonEmptyMessageList = new ArrayList<>();
-        nonEmptyMessageList.add(new Message(1,"user","test_message", LocalDateTime.now(),2));
-        Page<Message> mockPage = new PageImpl<>(nonEmptyMessageList);
-        when(messageService.findPassState(PageRequest.of(0,5,Sort.by("time").descending()))).thenReturn(mockPage);
+        List<MessageVo> messageVos = new ArrayList<>();
+        messageVos.add(new MessageVo(1,"user","test_message", LocalDateTime.now(),"user","",2));
+        when(messageVoService.findPassPage(0,5)).thenReturn(messageVos);
         mockMvc.perform(get("/message/getMessageList").param("page", "1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
     @Test
     public void testMessageListWithEmptyParam() throws Exception{
-        List<Message> nonEmptyMessageList = new ArrayList<>();
-        nonEmptyMessageList.add(new Message(1,"user","test_message", LocalDateTime.now(),2));
-        Page<Message> mockPage = new PageImpl<>(nonEmptyMessageList);
-        when(messageService.findPassState(PageRequest.of(0,5,Sort.by("time").descending()))).thenReturn(mockPage);
+        List<MessageVo> messageVos = new ArrayList<>();
+        messageVos.add(new MessageVo(1,"user","test_message", LocalDateTime.now(),"user","",2));
+        when(messageVoService.findPassPage(0,5)).thenReturn(messageVos);
         mockMvc.perform(get("/message/getMessageList"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
@@ -128,9 +127,7 @@ public class MessageControllerTests {
 
     @Test
     public void testMessageListWithEmptyPage() throws Exception{
-        Pageable message_pageable= PageRequest.of(0,5, Sort.by("time").descending());
-        when(messageService.findPassState(any()))
-                .thenReturn(new PageImpl<>(Collections.emptyList(),message_pageable,0));
+        when(messageVoService.findPassPage(0,5)).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/message/getMessageList").param("page", "1"))
                 .andExpect(status().isOk())
@@ -282,18 +279,22 @@ public class MessageControllerTests {
 
         // 创建一个带有用户属性的会话
         MockHttpSession session = new MockHttpSession();
-        session.setAttribute("user", new User()); // 假设User对象代表认证的用户
+        User user = new User();
+        user.setUserID(userID);
+        session.setAttribute("user", user); // 假设User对象代表认证的用户
 
         when(messageService.create(any(Message.class)))
                 .thenReturn(1);
 
-        // 构建请求并添加必要的参数
+        // 构建请求并添加必要的参数，参数中的userID不起作用
         ResultActions actions = mockMvc.perform(post("/sendMessage")
-                        .param("userID", userID)
+                        .param("userID", "other")
                         .param("content", content)
                         .session(session)) // 使用带有用户属性的会话
                 .andExpect(status().is3xxRedirection()) // 期望重定向
                 .andExpect(redirectedUrl("/message_list")); // 验证重定向到预期的URL
+
+        verify(messageService).create(argThat(message -> userID.equals(message.getUserID())));
     }
 
     @Test
@@ -328,13 +329,13 @@ public class MessageControllerTests {
 
     @Test
     public void testModifyMessageWithEmptyParam() throws Exception{
-        mockMvc.perform(post("/modifyMessage.do"))
+        mockMvc.perform(post("/modifyMessage.do").sessionAttr("user", new User()))
                 .andExpect(status().isBadRequest());
     }
 
     @Test
     public void testModifyMessageWithIdNotIntParam() throws Exception{
-        mockMvc.perform(post("/modifyMessage.do")
+        mockMvc.perform(post("/modifyMessage.do").sessionAttr("user", new User())
                 .param("messageID","hello")
                 .param("content","content"))
                 .andExpect(status().isBadRequest());
@@ -342,7 +343,7 @@ public class MessageControllerTests {
     }
     @Test
     public void testModifyMessageWithIdNegativeIntParam() throws Exception{
-        mockMvc.perform(post("/modifyMessage.do")
+        mockMvc.perform(post("/modifyMessage.do").sessionAttr("user", new User())
                         .param("messageID","-1")
                         .param("content","content"))
                 .andExpect(status().isBadRequest());
@@ -358,9 +359,11 @@ public class MessageControllerTests {
 
         when(messageService.findById(messageID)).thenReturn(message);
 
-        // 创建一个带有用户属性的会话
+        // 创建一个带有用户属性的会话，登录用户是留言的作者
         MockHttpSession session = new MockHttpSession();
-        session.setAttribute("user", new User()); // 假设User对象代表认证的用户
+        User author = new User();
+        author.setUserID(message.getUserID());
+        session.setAttribute("user", author);
 
         // 构建请求并添加必要的参数和会话
         ResultActions actions = mockMvc.perform(post("/modifyMessage.do")
@@ -383,7 +386,7 @@ public class MessageControllerTests {
 
         when(messageService.findById(messageID)).thenReturn(null);
 
-        mockMvc.perform(post("/modifyMessage.do")
+        mockMvc.perform(post("/modifyMessage.do").sessionAttr("user", new User())
                         .param("messageID",String.valueOf(messageID))
                         .param("content",content))
                 .andExpect(status().isOk())
@@ -405,9 +408,12 @@ public class MessageControllerTests {
     public void testDelMessageWithValidId() throws Exception{
         // 模拟messageService的行为
         doNothing().when(messageService).delById(1);
+        when(messageService.findById(1)).thenReturn(new Message(1, "author", "content", LocalDateTime.now(), 2));
+        User author = new User();
+        author.setUserID("author");
 
         // 构建请求并添加必要的参数
-        mockMvc.perform(post("/delMessage.do")
+        mockMvc.perform(post("/delMessage.do").sessionAttr("user", author)
                         .param("messageID", "1"))
                 .andExpect(status().isOk()) // 期望请求成功
                 .andExpect(jsonPath("$").value(true)); // 验证响应体中的值
@@ -418,9 +424,36 @@ public class MessageControllerTests {
 
     }
 
+    @Test
+    public void testModifyMessageOfAnotherUserIsForbidden() throws Exception{
+        when(messageService.findById(1)).thenReturn(new Message(1, "author", "content", LocalDateTime.now(), 2));
+        User other = new User();
+        other.setUserID("other");
+
+        mockMvc.perform(post("/modifyMessage.do").sessionAttr("user", other)
+                        .param("messageID", "1")
+                        .param("content", "changed"))
+                .andExpect(status().isForbidden());
+
+        verify(messageService, never()).update(any());
+    }
+
+    @Test
+    public void testDelMessageOfAnotherUserIsForbidden() throws Exception{
+        when(messageService.findById(1)).thenReturn(new Message(1, "author", "content", LocalDateTime.now(), 2));
+        User other = new User();
+        other.setUserID("other");
+
+        mockMvc.perform(post("/delMessage.do").sessionAttr("user", other)
+                        .param("messageID", "1"))
+                .andExpect(status().isForbidden());
+
+        verify(messageService, never()).delById(anyInt());
+    }
+
     @Test
     public void testDelMessageWithEmptyParam() throws Exception{
-        mockMvc.perform(post("/delMessage.do"))
+        mockMvc.perform(post("/delMessage.do").sessionAttr("user", new User()))
                 .andExpect(status().isBadRequest());
     }
 
@@ -431,22 +464,39 @@ public class MessageControllerTests {
         doNothing()
                 .when(messageService).delById(notExistingId);
 
-        mockMvc.perform(post("/delMessage.do").param("messageID",String.valueOf(notExistingId)))
+        mockMvc.perform(post("/delMessage.do").sessionAttr("user", new User()).param("messageID",String.valueOf(notExistingId)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").value(false));
     }
 
     @Test
     public void testDelMessageWithNegativeId() throws Exception{
-        mockMvc.perform(post("/delMessage.do").param("messageID",String.valueOf("-1")))
+        mockMvc.perform(post("/delMessage.do").sessionAttr("user", new User()).param("messageID",String.valueOf("-1")))
                 .andExpect(status().isBadRequest());
     }
 
     @Test
     public void testDelMessageWithStringId() throws Exception{
-        mockMvc.perform(post("/delMessage.do").param("messageID",String.valueOf("hello")))
+        mockMvc.perform(post("/delMessage.do").sessionAttr("user", new User()).param("messageID",String.valueOf("hello")))
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void testGetMessageListWithCursor() throws Exception {
+        PageCursor cursor = new PageCursor(LocalDateTime.of(2024, 3, 1, 12, 0), 42);
+        List<Message> messages = IntStream.range(0, 5)
+                .mapToObj(i -> new Message(41 - i, "user", "content", LocalDateTime.of(2024, 3, 1, 11, 59 - i), 2))
+                .collect(Collectors.toList());
+        List<MessageVo> messageVos = IntStream.range(0, 5)
+                .mapToObj(i -> new MessageVo())
+                .collect(Collectors.toList());
+        when(messageService.findPassState(cursor, 5)).thenReturn(messages);
+        when(messageVoService.returnVo(messages)).thenReturn(messageVos);
 
+        mockMvc.perform(get("/message/getMessageList").param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(header().string(PageCursor.HEADER, new PageCursor(LocalDateTime.of(2024, 3, 1, 11, 55), 37).encode()));
+        verify(messageService, never()).findPassState(any(Pageable.class));
+    }
 }
@@ -0,0 +1,175 @@
+package com.demo.message;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.demo.cache.CountCache;
+import com.demo.cache.MessageFeed;
+import com.demo.dao.MessageDao;
+import com.demo.dao.UserDao;
+import com.demo.entity.Message;
+import com.demo.entity.vo.MessageVo;
+import com.demo.service.MessageService;
+import com.demo.service.impl.MessageServiceImpl;
+import com.demo.service.impl.MessageVoServiceImpl;
+import com.demo.service.impl.StateMachine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class MessageFeedTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    private MessageDao messageDao;
+    private MessageFeed messageFeed;
+    private MessageServiceImpl messageService;
+    private MessageVoServiceImpl messageVoService;
+
+    @BeforeEach
+    public void setUp() {
+        messageDao = mock(MessageDao.class);
+        when(messageDao.findByState(anyInt(), any(Pageable.class))).thenReturn(new SliceImpl<>(Collections.emptyList()));
+        UserDao userDao = mock(UserDao.class);
+        when(userDao.findByUserIDIn(anyCollection())).thenReturn(Collections.emptyList());
+        messageFeed = new MessageFeed();
+        ReflectionTestUtils.setField(messageFeed, "maxSize", 10);
+        messageVoService = new MessageVoServiceImpl();
+        ReflectionTestUtils.setField(messageVoService, "messageDao", messageDao);
+        ReflectionTestUtils.setField(messageVoService, "userDao", userDao);
+        ReflectionTestUtils.setField(messageVoService, "messageFeed", messageFeed);
+        messageService = new MessageServiceImpl();
+        ReflectionTestUtils.setField(messageService, "messageDao", messageDao);
+        ReflectionTestUtils.setField(messageService, "stateMachine", mock(StateMachine.class));
+        ReflectionTestUtils.setField(messageService, "countCache", new CountCache());
+        ReflectionTestUtils.setField(messageService, "messageFeed", messageFeed);
+        ReflectionTestUtils.setField(messageService, "messageVoService", messageVoService);
+    }
+
+    @Test
+    public void testFirstPagesServedFromMemory() {
+        // 最新的11条，第11条只说明后面还有
+        passMessages(100, 11, PageRequest.of(0, 11));
+
+        assertEquals(Arrays.asList(100, 99, 98, 97, 96), ids(messageVoService.findPassPage(0, 5)));
+        assertEquals(Arrays.asList(95, 94, 93, 92, 91), ids(messageVoService.findPassPage(1, 5)));
+        assertEquals(10, messageFeed.size());
+        verify(messageDao, times(1)).findByState(eq(MessageService.STATE_PASS), any(Pageable.class));
+    }
+
+    @Test
+    public void testDeepPageFallsBackToDatabase() {
+        passMessages(100, 11, PageRequest.of(0, 11));
+        passMessages(90, 5, PageRequest.of(2, 5));
+
+        assertEquals(Arrays.asList(90, 89, 88, 87, 86), ids(messageVoService.findPassPage(2, 5)));
+    }
+
+    @Test
+    public void testPagesPastEndAreEmptyWhenAllInMemory() {
+        passMessages(3, 3, PageRequest.of(0, 11));
+
+        assertEquals(Arrays.asList(3, 2, 1), ids(messageVoService.findPassPage(0, 5)));
+        assertTrue(messageVoService.findPassPage(4, 5).isEmpty());
+        verify(messageDao, times(1)).findByState(anyInt(), any(Pageable.class));
+    }
+
+    @Test
+    public void testConfirmAndRejectUpdateFeedInPlace() {
+        passMessages(100, 11, PageRequest.of(0, 11));
+        messageVoService.findPassPage(0, 5);
+        when(messageDao.findByMessageID(200)).thenReturn(message(200, NOW.plusMinutes(1)));
+        when(messageDao.findByMessageID(50)).thenReturn(message(50, NOW.minusDays(1)));
+
+        messageService.confirmMessage(200);
+        messageService.confirmMessage(50);
+        messageService.rejectMessage(98);
+
+        assertEquals(Arrays.asList(200, 100, 99, 97, 96), ids(messageVoService.findPassPage(0, 5)));
+        verify(messageDao, times(1)).findByState(anyInt(), any(Pageable.class));
+        // 比内存中最早一条还早的留言不放入，第二页只剩4条，改为查库
+        passMessages(96, 5, PageRequest.of(1, 5));
+        assertEquals(Arrays.asList(96, 95, 94, 93, 92), ids(messageVoService.findPassPage(1, 5)));
+    }
+
+    @Test
+    public void testModifiedMessageLeavesFeed() {
+        passMessages(100, 11, PageRequest.of(0, 11));
+        messageVoService.findPassPage(0, 5);
+        Message modified = message(99, NOW);
+        modified.setState(MessageService.STATE_NO_AUDIT);
+
+        messageService.update(modified);
+        when(messageDao.findById(97)).thenReturn(Optional.of(message(97, NOW)));
+        messageService.delById(97);
+
+        assertEquals(Arrays.asList(100, 98, 96, 95, 94), ids(messageVoService.findPassPage(0, 5)));
+    }
+
+    @Test
+    public void testChangesDuringLoadAreNotOverwritten() {
+        List<Message> stale = messages(100, 11);
+        when(messageDao.findByState(MessageService.STATE_PASS, sorted(PageRequest.of(0, 11)))).thenAnswer(invocation -> {
+            messageFeed.remove(100);
+            return new SliceImpl<>(stale);
+        });
+        passMessages(99, 5, PageRequest.of(0, 5));
+        // 加载期间发生修改，这一次改为直接查库
+        assertEquals(Arrays.asList(99, 98, 97, 96, 95), ids(messageVoService.findPassPage(0, 5)));
+        assertEquals(0, messageFeed.size());
+
+        passMessages(99, 11, PageRequest.of(0, 11));
+        assertEquals(Arrays.asList(99, 98, 97, 96, 95), ids(messageVoService.findPassPage(0, 5)));
+    }
+
+    @Test
+    public void testNegativePageRejected() {
+        assertThrows(IllegalArgumentException.class, () -> messageVoService.findPassPage(-1, 5));
+    }
+
+    private void passMessages(int newestID, int count, PageRequest pageable) {
+        when(messageDao.findByState(MessageService.STATE_PASS, sorted(pageable)))
+                .thenReturn(new SliceImpl<>(messages(newestID, count)));
+    }
+
+    private static PageRequest sorted(PageRequest pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                Sort.by("time").descending()
+                        .and(Sort.by("messageID").descending()));
+    }
+
+    private static List<Message> messages(int newestID, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> message(newestID - i, NOW.minusMinutes(100 - newestID + i)))
+                .collect(Collectors.toList());
+    }
+
+    private static Message message(int messageID, LocalDateTime time) {
+        return new Message(messageID, "user", "content", time, MessageService.STATE_PASS);
+    }
+
+    private static List<Integer> ids(List<MessageVo> messages) {
+        List<Integer> ids = new ArrayList<>();
+        for (MessageVo message : messages) {
+            ids.add(message.getMessageID());
+        }
+        return ids;
+    }
+}
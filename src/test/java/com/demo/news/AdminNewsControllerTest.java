@@ -2,6 +2,7 @@ package com.demo.news;
 
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -10,6 +11,7 @@ import com.demo.controller.admin.AdminNewsController;
 import com.demo.entity.News;
 import com.demo.entity.User;
 import com.demo.service.NewsService;
+import com.demo.utils.PageCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -580,4 +582,49 @@ public class AdminNewsControllerTest {
             fail();
         }
     }
+
+    @Test
+    public void testNewsListWithCursorReturnsNextCursor() {
+        try {
+            LocalDateTime time = LocalDateTime.of(2024, 3, 1, 12, 0);
+            List<News> newsList = new ArrayList<>();
+            for (int i = 10; i > 0; i--) {
+                newsList.add(new News(i, "title", "content", time.plusMinutes(i)));
+            }
+            when(newsService.findAll(null, 10)).thenReturn(newsList);
+
+            mockMvc.perform(get("/newsList.do").param("cursor", "").session((MockHttpSession) request.getSession()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(10))
+                    .andExpect(header().string(PageCursor.HEADER, new PageCursor(time.plusMinutes(1), 1).encode()));
+            verify(newsService, never()).findAll(any(Pageable.class));
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testNewsListWithCursorOnLastPage() {
+        try {
+            PageCursor cursor = new PageCursor(LocalDateTime.of(2024, 3, 1, 12, 0), 11);
+            when(newsService.findAll(cursor, 10)).thenReturn(Collections.singletonList(new News(3, "title", "content", LocalDateTime.now())));
+
+            mockMvc.perform(get("/newsList.do").param("cursor", cursor.encode()).session((MockHttpSession) request.getSession()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(header().doesNotExist(PageCursor.HEADER));
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testNewsListWithInvalidCursor() {
+        try {
+            mockMvc.perform(get("/newsList.do").param("cursor", "not-a-cursor").session((MockHttpSession) request.getSession()))
+                    .andExpect(status().isBadRequest());
+        } catch (Exception e) {
+            fail();
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package com.demo.order;
+
+import com.demo.controller.admin.AdminExportController;
+import com.demo.service.ExportService;
+import com.demo.utils.CsvUtil;
+import com.demo.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminExportController.class)
+public class AdminExportControllerTests {
+
+    private static final User ADMIN = new User(1, "admin", "admin", "admin", "", "", 1, "");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ExportService exportService;
+
+    @Test
+    public void testExportOrdersStreamsCsv() throws Exception {
+        doAnswer(invocation -> {
+            Writer writer = invocation.getArgument(3);
+            CsvUtil.writeRow(writer, "orderID", "venueName");
+            CsvUtil.writeRow(writer, 1, "场馆,A");
+            return null;
+        }).when(exportService).exportOrders(eq(LocalDate.of(2023, 1, 1)), eq(LocalDate.of(2023, 12, 31)), eq(2), any(Writer.class));
+
+        MvcResult result = mockMvc.perform(get("/admin/exportOrders.do").sessionAttr("admin", ADMIN)
+                        .param("startDate", "2023-01-01").param("endDate", "2023-12-31").param("state", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult response = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"orders.csv\""))
+                .andReturn();
+        assertEquals("\uFEFForderID,venueName\r\n1,\"场馆,A\"\r\n",
+                new String(response.getResponse().getContentAsByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFormulaCellsAreWrittenAsText() throws Exception {
+        StringWriter writer = new StringWriter();
+
+        CsvUtil.writeRow(writer, "=HYPERLINK(\"http://x\",\"y\")", "+1", "-1+2", "@SUM(A1)", "\tcmd", "a=b", -5, "");
+
+        assertEquals("\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\",'+1,'-1+2,'@SUM(A1),'\tcmd,a=b,-5,\r\n", writer.toString());
+    }
+
+    @Test
+    public void testExportMessagesWithoutFilters() throws Exception {
+        MvcResult result = mockMvc.perform(get("/admin/exportMessages.do").sessionAttr("admin", ADMIN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        verify(exportService).exportMessages(isNull(), isNull(), isNull(), any(Writer.class));
+    }
+
+    @Test
+    public void testExportUsers() throws Exception {
+        MvcResult result = mockMvc.perform(get("/admin/exportUsers.do").sessionAttr("admin", ADMIN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"users.csv\""));
+
+        verify(exportService).exportUsers(any(Writer.class));
+    }
+}
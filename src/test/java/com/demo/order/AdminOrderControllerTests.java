@@ -18,6 +18,7 @@ import com.demo.entity.User;
 import com.demo.entity.vo.OrderVo;
 import com.demo.service.OrderService;
 import com.demo.service.OrderVoService;
+import com.demo.utils.PageCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,9 +33,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.util.NestedServletException;
 
 import javax.persistence.EntityNotFoundException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -69,55 +75,71 @@ public class AdminOrderControllerTests {
         List<Order> mockOrders = IntStream.range(0,15)
                 .mapToObj(i -> new Order())
                 .collect(Collectors.toList());
-        List<OrderVo> mockOrderVos = IntStream.range(0,15)
-                .mapToObj(i -> new OrderVo())
-                .collect(Collectors.toList());
+        Pageable audit_pageable= PageRequest.of(0,10, Sort.by("startTime").descending());
         Pageable order_pageable= PageRequest.of(0,10, Sort.by("orderTime").descending());
+        Page<Order> mockAuditPage = new PageImpl<>(mockOrders.subList(0,10),audit_pageable,35);
         Page<Order> mockPage = new PageImpl<>(mockOrders,order_pageable,mockOrders.size());
 
-        when(orderService.findAuditOrder()).thenReturn(mockOrders);
-        when(orderVoService.returnVo(mockOrders)).thenReturn(mockOrderVos);
+        when(orderService.findAuditOrder(null,null,audit_pageable)).thenReturn(mockAuditPage);
         when(orderService.findNoAuditOrder(order_pageable)).thenReturn(mockPage);
 
         mockMvc.perform(get("/reservation_manage").session((MockHttpSession) request.getSession()))
                 .andExpect(status().isOk())
                 .andExpect(view().name("admin/reservation_manage"))
-                .andExpect(model().attribute("order_list",mockOrderVos))
+                .andExpect(model().attribute("audit_total",4))
                 .andExpect(model().attribute("total",2));
+        verify(orderVoService, never()).returnVo(any());
     }
     @Test
     public void testReservationManageWithoutAuditOrders() throws Exception {
         List<Order> mockOrders = new ArrayList<>();
+        Pageable audit_pageable= PageRequest.of(0,10, Sort.by("startTime").descending());
         Pageable order_pageable= PageRequest.of(0,10, Sort.by("orderTime").descending());
         Page<Order> mockPage = new PageImpl<>(mockOrders);
-        List<OrderVo> mockOrderVos = new ArrayList<>();
 
-        when(orderService.findAuditOrder()).thenReturn(new ArrayList<>());
+        when(orderService.findAuditOrder(null,null,audit_pageable)).thenReturn(new PageImpl<>(Collections.emptyList(),audit_pageable,0));
         when(orderService.findNoAuditOrder(order_pageable)).thenReturn(mockPage);
 
         mockMvc.perform(get("/reservation_manage").session((MockHttpSession) request.getSession()))
                 .andExpect(status().isOk())
                 .andExpect(view().name("admin/reservation_manage"))
-                .andExpect(model().attribute("order_list",hasSize(0)))
+                .andExpect(model().attribute("audit_total",0))
                 .andExpect(model().attribute("total",mockPage.getTotalPages()));
     }
     @Test
     public void testReservationManageWithoutNoAuditOrders() throws Exception {
-        List<Order> mockOrders = new ArrayList<>();
+        List<Order> mockOrders = IntStream.range(0,3)
+                .mapToObj(i -> new Order())
+                .collect(Collectors.toList());
+        Pageable audit_pageable= PageRequest.of(0,10, Sort.by("startTime").descending());
         Pageable order_pageable= PageRequest.of(0,10, Sort.by("orderTime").descending());
-        Page<Order> mockEmptyPage = new PageImpl<>(mockOrders);
-        List<OrderVo> mockOrderVos = new ArrayList<>();
 
-        when(orderService.findAuditOrder()).thenReturn(mockOrders);
-        when(orderVoService.returnVo(mockOrders)).thenReturn(mockOrderVos);
+        when(orderService.findAuditOrder(null,null,audit_pageable)).thenReturn(new PageImpl<>(mockOrders,audit_pageable,3));
         when(orderService.findNoAuditOrder(order_pageable)).thenReturn(new PageImpl<>(Collections.emptyList(),order_pageable,0));
 
         mockMvc.perform(get("/reservation_manage").session((MockHttpSession) request.getSession()))
                 .andExpect(status().isOk())
                 .andExpect(view().name("admin/reservation_manage"))
-                .andExpect(model().attribute("order_list",mockOrderVos))
+                .andExpect(model().attribute("audit_total",1))
                 .andExpect(model().attribute("total",0));
     }
+    @Test
+    public void testReservationManageWithDateFilter() throws Exception {
+        Pageable audit_pageable= PageRequest.of(0,10, Sort.by("startTime").descending());
+        Pageable order_pageable= PageRequest.of(0,10, Sort.by("orderTime").descending());
+        LocalDate startDate = LocalDate.of(2024,3,1);
+        LocalDate endDate = LocalDate.of(2024,3,31);
+
+        when(orderService.findAuditOrder(startDate,endDate,audit_pageable)).thenReturn(new PageImpl<>(Collections.emptyList(),audit_pageable,25));
+        when(orderService.findNoAuditOrder(order_pageable)).thenReturn(new PageImpl<>(Collections.emptyList(),order_pageable,0));
+
+        mockMvc.perform(get("/reservation_manage").param("startDate","2024-03-01").param("endDate","2024-03-31")
+                        .session((MockHttpSession) request.getSession()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("audit_total",3))
+                .andExpect(model().attribute("startDate",startDate))
+                .andExpect(model().attribute("endDate",endDate));
+    }
 
     @Test
     public void testReservationManageWithInvalidRole() throws Exception {
@@ -188,6 +210,37 @@ public class AdminOrderControllerTests {
     }
 
 
+    @Test
+    public void testAdminGetAuditOrderListWithValidPage() throws Exception {
+        List<Order> mockOrderList = Collections.singletonList(new Order());
+        List<OrderVo> mockVo = Collections.singletonList(new OrderVo());
+        Pageable audit_pageable = PageRequest.of(1,10, Sort.by("startTime").descending());
+        when(orderService.findAuditOrder(null,null,audit_pageable)).thenReturn(new PageImpl<>(mockOrderList,audit_pageable,11));
+        when(orderVoService.returnVo(mockOrderList)).thenReturn(mockVo);
+
+        mockMvc.perform(get("/admin/getAuditOrderList.do").param("page","2").session((MockHttpSession) request.getSession()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+    @Test
+    public void testAdminGetAuditOrderListWithDateFilter() throws Exception {
+        Pageable audit_pageable = PageRequest.of(0,10, Sort.by("startTime").descending());
+        LocalDate startDate = LocalDate.of(2024,3,1);
+        when(orderService.findAuditOrder(startDate,null,audit_pageable)).thenReturn(new PageImpl<>(Collections.emptyList(),audit_pageable,0));
+        when(orderVoService.returnVo(Collections.emptyList())).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/admin/getAuditOrderList.do").param("startDate","2024-03-01").session((MockHttpSession) request.getSession()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        verify(orderService, times(1)).findAuditOrder(startDate,null,audit_pageable);
+    }
+    @Test
+    public void testAdminGetAuditOrderListWithInvalidDate() throws Exception {
+        mockMvc.perform(get("/admin/getAuditOrderList.do").param("startDate","2024/03/01").session((MockHttpSession) request.getSession()))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testPassOrderWithValidID() throws Exception {
         int orderID = 127;
@@ -287,4 +340,54 @@ public class AdminOrderControllerTests {
                 .andExpect(status().isUnauthorized());  // expect 401 Unauthorized
     }
 
+    @Test
+    public void testPassOrdersWithValidIDs() throws Exception {
+        Map<Integer,Boolean> mockResult = new LinkedHashMap<>();
+        mockResult.put(1, true);
+        mockResult.put(2, false);
+        when(orderService.confirmOrders(Arrays.asList(1, 2))).thenReturn(mockResult);
+
+        mockMvc.perform(post("/passOrders.do").param("orderIDs", "1", "2").session((MockHttpSession) request.getSession()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.1").value(true))
+                .andExpect(jsonPath("$.2").value(false));
+        verify(orderService, times(1)).confirmOrders(Arrays.asList(1, 2));
+    }
+    @Test
+    public void testPassOrdersWithEmptyParam() throws Exception {
+        mockMvc.perform(post("/passOrders.do").session((MockHttpSession) request.getSession()))
+                .andExpect(status().isBadRequest());
+        verify(orderService, never()).confirmOrders(any());
+    }
+    @Test
+    public void testRejectOrdersWithValidIDs() throws Exception {
+        Map<Integer,Boolean> mockResult = new LinkedHashMap<>();
+        mockResult.put(3, true);
+        when(orderService.rejectOrders(Collections.singletonList(3))).thenReturn(mockResult);
+
+        mockMvc.perform(post("/rejectOrders.do").param("orderIDs", "3").session((MockHttpSession) request.getSession()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.3").value(true));
+        verify(orderService, times(1)).rejectOrders(Collections.singletonList(3));
+    }
+    @Test
+    public void testRejectOrdersWithStringID() throws Exception {
+        mockMvc.perform(post("/rejectOrders.do").param("orderIDs", "nct127").session((MockHttpSession) request.getSession()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testAdminGetOrderListWithCursor() throws Exception {
+        PageCursor cursor = new PageCursor(LocalDateTime.of(2024, 3, 1, 12, 0), 100);
+        List<Order> mockOrderList = Collections.singletonList(new Order());
+        List<OrderVo> mockVo = Collections.singletonList(new OrderVo());
+        when(orderService.findNoAuditOrder(cursor, 10)).thenReturn(mockOrderList);
+        when(orderVoService.returnVo(mockOrderList)).thenReturn(mockVo);
+
+        mockMvc.perform(get("/admin/getOrderList.do").param("cursor", cursor.encode()).session((MockHttpSession) request.getSession()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist(PageCursor.HEADER));
+        verify(orderService, never()).findNoAuditOrder(any(Pageable.class));
+    }
 }
@@ -0,0 +1,182 @@
+package com.demo.order;
+
+import static com.demo.service.OrderService.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.demo.cache.CountCache;
+import com.demo.cache.MessageFeed;
+import com.demo.cache.VenueSlotIndex;
+import com.demo.dao.MessageDao;
+import com.demo.dao.NewsDao;
+import com.demo.dao.OrderDao;
+import com.demo.dao.UserDao;
+import com.demo.dao.VenueDao;
+import com.demo.entity.Message;
+import com.demo.entity.News;
+import com.demo.entity.Order;
+import com.demo.entity.User;
+import com.demo.entity.Venue;
+import com.demo.service.MessageService;
+import com.demo.service.MessageVoService;
+import com.demo.service.VenueStatsService;
+import com.demo.service.impl.MessageServiceImpl;
+import com.demo.service.impl.NewsServiceImpl;
+import com.demo.service.impl.OrderServiceImpl;
+import com.demo.service.impl.StateMachine;
+import com.demo.service.impl.UserServiceImpl;
+import com.demo.service.impl.VenueServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CountCacheTests {
+
+    @Test
+    public void testLoadsOnceUntilInvalidated() {
+        CountCache countCache = new CountCache();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(5, countCache.get("news", () -> {
+            loads.incrementAndGet();
+            return 5;
+        }));
+        assertEquals(5, countCache.get("news", () -> {
+            loads.incrementAndGet();
+            return 5;
+        }));
+        assertEquals(1, loads.get());
+
+        countCache.invalidate("news");
+        assertEquals(6, countCache.get("news", () -> 6));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        CountCache countCache = new CountCache(3, 600);
+        for (int i = 0; i < 10; i++) {
+            countCache.get("order:user:" + i, () -> 1);
+        }
+        assertEquals(3, countCache.size());
+    }
+
+    @Test
+    public void testCountLoadedBeforeInvalidationIsNotStored() {
+        CountCache countCache = new CountCache();
+        // 统计过程中有写入并失效了这个key，统计结果已经过期
+        assertEquals(5, countCache.get("news", () -> {
+            countCache.invalidate("news");
+            return 5;
+        }));
+        assertEquals(6, countCache.get("news", () -> 6));
+    }
+
+    @Test
+    public void testOrderWriteInvalidatesOnlyItsUser() {
+        CountCache countCache = new CountCache();
+        OrderDao orderDao = mock(OrderDao.class);
+        when(orderDao.countByUserID(any())).thenReturn(3L);
+        when(orderDao.findByOrderID(1)).thenReturn(new Order(1, "a", 1, STATE_NO_AUDIT,
+                LocalDateTime.now(), LocalDateTime.now(), 1, 100));
+        OrderServiceImpl orderService = new OrderServiceImpl();
+        ReflectionTestUtils.setField(orderService, "orderDao", orderDao);
+        ReflectionTestUtils.setField(orderService, "countCache", countCache);
+        ReflectionTestUtils.setField(orderService, "slotIndex", mock(VenueSlotIndex.class));
+        ReflectionTestUtils.setField(orderService, "venueStatsService", mock(VenueStatsService.class));
+        countCache.get(OrderServiceImpl.userCountKey("a"), () -> orderDao.countByUserID("a"));
+        countCache.get(OrderServiceImpl.userCountKey("b"), () -> orderDao.countByUserID("b"));
+
+        orderService.delOrder(1);
+        countCache.get(OrderServiceImpl.userCountKey("a"), () -> orderDao.countByUserID("a"));
+        countCache.get(OrderServiceImpl.userCountKey("b"), () -> orderDao.countByUserID("b"));
+
+        verify(orderDao, times(2)).countByUserID("a");
+        verify(orderDao, times(1)).countByUserID("b");
+    }
+
+    @Test
+    public void testMessageAuditKeepsUserCounts() {
+        CountCache countCache = new CountCache();
+        MessageDao messageDao = mock(MessageDao.class);
+        when(messageDao.findByUserID(any(), any(Pageable.class))).thenReturn(new SliceImpl<>(Collections.emptyList()));
+        when(messageDao.findByState(any(Integer.class), any(Pageable.class))).thenReturn(new SliceImpl<>(Collections.emptyList()));
+        when(messageDao.findById(7)).thenReturn(Optional.of(new Message(7, "a", "", LocalDateTime.now(), 1)));
+        MessageServiceImpl messageService = new MessageServiceImpl();
+        ReflectionTestUtils.setField(messageService, "messageDao", messageDao);
+        ReflectionTestUtils.setField(messageService, "countCache", countCache);
+        ReflectionTestUtils.setField(messageService, "stateMachine", mock(StateMachine.class));
+        ReflectionTestUtils.setField(messageService, "messageFeed", mock(MessageFeed.class));
+        ReflectionTestUtils.setField(messageService, "messageVoService", mock(MessageVoService.class));
+        Pageable pageable = PageRequest.of(0, 5);
+        messageService.findByUser("a", pageable);
+        messageService.findByUser("b", pageable);
+        messageService.findPassState(pageable);
+
+        messageService.confirmMessage(7);
+        messageService.findByUser("a", pageable);
+        messageService.findPassState(pageable);
+        verify(messageDao, times(1)).countByUserID("a");
+        verify(messageDao, times(2)).countByState(MessageService.STATE_PASS);
+
+        messageService.delById(7);
+        messageService.findByUser("a", pageable);
+        messageService.findByUser("b", pageable);
+        verify(messageDao, times(2)).countByUserID("a");
+        verify(messageDao, times(1)).countByUserID("b");
+    }
+
+    @Test
+    public void testPagesUseSliceAndCachedTotal() {
+        CountCache countCache = new CountCache();
+        Pageable pageable = PageRequest.of(1, 2);
+
+        NewsDao newsDao = mock(NewsDao.class);
+        when(newsDao.findAllBy(pageable)).thenReturn(new SliceImpl<>(Collections.singletonList(new News())));
+        when(newsDao.count()).thenReturn(3L);
+        NewsServiceImpl newsService = new NewsServiceImpl();
+        ReflectionTestUtils.setField(newsService, "newsDao", newsDao);
+        ReflectionTestUtils.setField(newsService, "countCache", countCache);
+
+        VenueDao venueDao = mock(VenueDao.class);
+        when(venueDao.findAllBy(pageable)).thenReturn(new SliceImpl<>(Collections.singletonList(new Venue())));
+        when(venueDao.count()).thenReturn(3L);
+        VenueServiceImpl venueService = new VenueServiceImpl();
+        ReflectionTestUtils.setField(venueService, "venueDao", venueDao);
+        ReflectionTestUtils.setField(venueService, "countCache", countCache);
+
+        UserDao userDao = mock(UserDao.class);
+        when(userDao.findByIsadmin(0, pageable)).thenReturn(new SliceImpl<>(Collections.singletonList(new User())));
+        when(userDao.countByIsadmin(0)).thenReturn(3L);
+        UserServiceImpl userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "userDao", userDao);
+        ReflectionTestUtils.setField(userService, "countCache", countCache);
+
+        for (int i = 0; i < 2; i++) {
+            assertPage(newsService.findAll(pageable));
+            assertPage(venueService.findAll(pageable));
+            assertPage(userService.findByUserID(pageable));
+        }
+
+        verify(newsDao, times(1)).count();
+        verify(newsDao, never()).findAll(any(Pageable.class));
+        verify(venueDao, times(1)).count();
+        verify(venueDao, never()).findAll(any(Pageable.class));
+        verify(userDao, times(1)).countByIsadmin(0);
+        verify(userDao, never()).findAllByIsadmin(anyInt(), any(Pageable.class));
+    }
+
+    private static void assertPage(Page<?> page) {
+        assertEquals(1, page.getContent().size());
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+    }
+}
@@ -0,0 +1,70 @@
+package com.demo.order;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.demo.service.impl.JobLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JobLockTests {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+    }
+
+    private JobLock lock() {
+        JobLock lock = new JobLock();
+        ReflectionTestUtils.setField(lock, "jdbcTemplate", jdbcTemplate);
+        return lock;
+    }
+
+    @Test
+    public void testOnlyOneInstanceAcquires() {
+        // 第一个实例的UPDATE命中租期已过的行，第二个实例条件不满足
+        when(jdbcTemplate.update(startsWith("update job_lock set owner"), anyString(), anyInt(), eq("job")))
+                .thenReturn(1, 0);
+        JobLock first = lock();
+        JobLock second = lock();
+
+        assertTrue(first.tryLock("job", 60));
+        assertFalse(second.tryLock("job", 60));
+
+        verify(jdbcTemplate, times(2)).update(startsWith("insert ignore into job_lock"), eq("job"));
+        ArgumentCaptor<String> owners = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).update(startsWith("update job_lock set owner"), owners.capture(), eq(60), eq("job"));
+        assertFalse(owners.getAllValues().get(0).equals(owners.getAllValues().get(1)));
+    }
+
+    @Test
+    public void testUnlockReleasesOnlyOwnLock() {
+        when(jdbcTemplate.update(startsWith("update job_lock set owner"), anyString(), anyInt(), eq("job"))).thenReturn(1);
+        JobLock lock = lock();
+        lock.tryLock("job", 60);
+        ArgumentCaptor<String> owner = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(startsWith("update job_lock set owner"), owner.capture(), eq(60), eq("job"));
+
+        lock.unlock("job");
+
+        verify(jdbcTemplate).update(startsWith("update job_lock set locked_until"), eq("job"), eq(owner.getValue()));
+    }
+
+    @Test
+    public void testDatabaseFailureSkipsRun() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+        when(jdbcTemplate.update(anyString(), anyString()))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+
+        assertFalse(lock().tryLock("job", 60));
+    }
+}
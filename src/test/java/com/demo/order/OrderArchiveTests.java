@@ -0,0 +1,87 @@
+package com.demo.order;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.demo.cache.CountCache;
+import com.demo.dao.OrderDao;
+import com.demo.entity.Order;
+import com.demo.service.impl.OrderServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class OrderArchiveTests {
+
+    private OrderServiceImpl orderService;
+    private OrderDao orderDao;
+
+    @BeforeEach
+    public void setUp() {
+        orderDao = mock(OrderDao.class);
+        orderService = new OrderServiceImpl();
+        ReflectionTestUtils.setField(orderService, "orderDao", orderDao);
+        ReflectionTestUtils.setField(orderService, "countCache", new CountCache());
+        when(orderDao.countByUserID("user")).thenReturn(7L);
+        when(orderDao.countArchivedByUserID("user")).thenReturn(4L);
+    }
+
+    @Test
+    public void testPageCrossingIntoArchive() {
+        Pageable pageable = PageRequest.of(1, 5, Sort.by("orderTime").descending());
+        when(orderDao.findByUserID("user", pageable)).thenReturn(new SliceImpl<>(orders(6, 7)));
+        when(orderDao.findArchivedByUserID("user", 3, 0)).thenReturn(orders(101, 102, 103));
+
+        Page<Order> page = orderService.findUserOrder("user", pageable);
+
+        assertEquals(Arrays.asList(6, 7, 101, 102, 103), ids(page.getContent()));
+        assertEquals(11, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+    }
+
+    @Test
+    public void testPagePastLiveOrdersReadsOnlyArchive() {
+        Pageable pageable = PageRequest.of(2, 5);
+        when(orderDao.findArchivedByUserID("user", 5, 3)).thenReturn(orders(104));
+
+        Page<Order> page = orderService.findUserOrder("user", pageable);
+
+        assertEquals(Collections.singletonList(104), ids(page.getContent()));
+        verify(orderDao, never()).findByUserID(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    public void testPageWithinLiveOrdersSkipsArchive() {
+        Pageable pageable = PageRequest.of(0, 5);
+        when(orderDao.findByUserID("user", pageable)).thenReturn(new SliceImpl<>(orders(1, 2, 3, 4, 5)));
+
+        Page<Order> page = orderService.findUserOrder("user", pageable);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), ids(page.getContent()));
+        verify(orderDao, never()).findArchivedByUserID(anyString(), anyInt(), anyLong());
+    }
+
+    private List<Order> orders(int... ids) {
+        return Arrays.stream(ids)
+                .mapToObj(id -> new Order(id, "user", 1, 3, LocalDateTime.now(), LocalDateTime.now(), 1, 100))
+                .collect(Collectors.toList());
+    }
+
+    private List<Integer> ids(List<Order> orders) {
+        return orders.stream().map(Order::getOrderID).collect(Collectors.toList());
+    }
+}
@@ -37,11 +37,15 @@ import org.springframework.web.util.NestedServletException;
 
 import javax.persistence.EntityNotFoundException;
 import javax.swing.text.html.parser.Entity;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -72,6 +76,13 @@ public class OrderControllerTests {
 
         request = new MockHttpServletRequest();
         Objects.requireNonNull(request.getSession()).setAttribute("user", user);
+        // 默认订单属于登录用户
+        when(orderService.findById(anyInt())).thenAnswer(invocation -> {
+            Order order = new Order();
+            order.setOrderID(invocation.getArgument(0));
+            order.setUserID("userID");
+            return order;
+        });
     }
 
     @Test
@@ -383,6 +394,7 @@ public class OrderControllerTests {
         Order mockOrder = new Order();
         mockOrder.setOrderID(validId);
         mockOrder.setVenueID(1);
+        mockOrder.setUserID("userID");
         Venue mockVenue = new Venue();
         mockVenue.setVenueID(1);
 
@@ -565,6 +577,34 @@ public class OrderControllerTests {
     }
 
 
+    @Test
+    public void testOrdersOfAnotherUserAreForbidden() throws Exception {
+        Order other = new Order();
+        other.setOrderID(2);
+        other.setUserID("other");
+        when(orderService.findById(2)).thenReturn(other);
+        MockHttpSession session = (MockHttpSession) request.getSession();
+
+        mockMvc.perform(post("/finishOrder.do").param("orderID", "2").session(session))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/delOrder.do").param("orderID", "2").session(session))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/modifyOrder.do").param("orderID", "2").session(session))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/modifyOrder")
+                        .param("venueName", "Venue1")
+                        .param("date", "2024-03-30")
+                        .param("startTime", "2024-03-30 10:00")
+                        .param("hours", "2")
+                        .param("orderID", "2")
+                        .session(session))
+                .andExpect(status().isForbidden());
+
+        verify(orderService, never()).finishOrder(anyInt());
+        verify(orderService, never()).delOrder(anyInt());
+        verify(orderService, never()).updateOrder(anyInt(), anyString(), any(LocalDateTime.class), anyInt(), anyString());
+    }
+
     @Test
     public void testDelOrderWithValidID() throws Exception {
         int orderID = 1;
@@ -715,4 +755,41 @@ public class OrderControllerTests {
         mockMvc.perform(get("/order/getOrderList.do").param("venueName","nct127").param("date","2023-03-31"))
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    public void testGetScheduleReturnsWeekForSelectedVenues() throws Exception {
+        Venue venue1 = new Venue();
+        venue1.setVenueID(1);
+        Venue venue2 = new Venue();
+        venue2.setVenueID(2);
+        when(venueService.findAll()).thenReturn(Arrays.asList(venue1, venue2));
+        Map<Integer, int[]> schedule = new HashMap<>();
+        schedule.put(2, new int[]{0, 1 << 10, 0, 0, 0, 0, 0});
+        when(orderService.findSchedule(Collections.singletonList(2), LocalDate.of(2023, 3, 31), 7)).thenReturn(schedule);
+
+        mockMvc.perform(get("/order/getSchedule.do").session((MockHttpSession) request.getSession()).param("venueIDs", "2").param("startDate", "2023-03-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].venue.venueID").value(2))
+                .andExpect(jsonPath("$[0].occupied", hasSize(7)))
+                .andExpect(jsonPath("$[0].occupied[1]").value(1 << 10));
+    }
+
+    @Test
+    public void testGetScheduleLimitsDays() throws Exception {
+        when(venueService.findAll()).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/order/getSchedule.do").session((MockHttpSession) request.getSession()).param("startDate", "2023-03-31").param("days", "365"))
+                .andExpect(status().isOk());
+        verify(orderService).findSchedule(Collections.emptyList(), LocalDate.of(2023, 3, 31), 31);
+    }
+
+    @Test
+    public void testGetScheduleWithBadStartDate() throws Exception {
+        mockMvc.perform(get("/order/getSchedule.do").session((MockHttpSession) request.getSession()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/order/getSchedule.do").session((MockHttpSession) request.getSession()).param("startDate", "2023-13-40"))
+                .andExpect(status().isBadRequest());
+        verify(orderService, never()).findSchedule(any(), any(), anyInt());
+    }
 }
@@ -0,0 +1,146 @@
+package com.demo.order;
+
+import static com.demo.service.OrderService.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.demo.cache.CountCache;
+import com.demo.cache.VenueSlotIndex;
+import com.demo.dao.OrderDao;
+import com.demo.entity.Order;
+import com.demo.service.impl.JobLock;
+import com.demo.service.impl.OrderExpiryJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+public class OrderExpiryJobTests {
+
+    private OrderExpiryJob job;
+    private OrderDao orderDao;
+    private VenueSlotIndex slotIndex;
+    private JobLock jobLock;
+
+    @BeforeEach
+    public void setUp() {
+        orderDao = mock(OrderDao.class);
+        LocalDateTime startTime = LocalDate.now().atStartOfDay();
+        when(orderDao.findByStateInAndStartTimeGreaterThanEqual(anyCollection(), any())).thenReturn(Arrays.asList(
+                new Order(1, "user", 1, STATE_NO_AUDIT, startTime, startTime, 1, 100),
+                new Order(2, "user", 1, STATE_WAIT, startTime.plusHours(1), startTime.plusHours(1), 1, 100)));
+        slotIndex = new VenueSlotIndex();
+        ReflectionTestUtils.setField(slotIndex, "orderDao", orderDao);
+        slotIndex.rebuild();
+
+        job = new OrderExpiryJob();
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+        ReflectionTestUtils.setField(job, "orderDao", orderDao);
+        ReflectionTestUtils.setField(job, "slotIndex", slotIndex);
+        ReflectionTestUtils.setField(job, "countCache", new CountCache());
+        jobLock = mock(JobLock.class);
+        when(jobLock.tryLock(eq("order-expiry"), anyInt())).thenReturn(true);
+        ReflectionTestUtils.setField(job, "jobLock", jobLock);
+    }
+
+    @Test
+    public void testRunExpiresPendingAndFinishesApprovedInBatches() {
+        when(orderDao.findStartedBefore(eq(STATE_NO_AUDIT), any(), eq(2)))
+                .thenReturn(Arrays.asList(1, 3), Collections.singletonList(4));
+        when(orderDao.findEndedBefore(eq(STATE_WAIT), any(), eq(2)))
+                .thenReturn(Collections.singletonList(2));
+        when(orderDao.updateStateIn(eq(STATE_REJECT), anyCollection(), eq(STATE_NO_AUDIT)))
+                .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(1)).size());
+        when(orderDao.updateStateIn(eq(STATE_FINISH), anyCollection(), eq(STATE_WAIT))).thenReturn(1);
+
+        job.run();
+
+        verify(orderDao).updateStateIn(STATE_REJECT, Arrays.asList(1, 3), STATE_NO_AUDIT);
+        verify(orderDao).updateStateIn(STATE_REJECT, Collections.singletonList(4), STATE_NO_AUDIT);
+        verify(orderDao).updateStateIn(STATE_FINISH, Collections.singletonList(2), STATE_WAIT);
+        assertEquals(3, job.getExpiredCount());
+        assertEquals(1, job.getFinishedCount());
+        assertEquals(1, job.getRunCount());
+        assertEquals(0b10, slotIndex.occupied(1, LocalDate.now()));
+        assertEquals(STATE_FINISH, slotIndex.orders(1, LocalDate.now()).get(0).getState());
+    }
+
+    @Test
+    public void testRunWithNothingDueDoesNotUpdate() {
+        when(orderDao.findStartedBefore(anyInt(), any(), anyInt())).thenReturn(Collections.emptyList());
+        when(orderDao.findEndedBefore(anyInt(), any(), anyInt())).thenReturn(Collections.emptyList());
+
+        job.run();
+
+        verify(orderDao, never()).updateStateIn(anyInt(), anyCollection(), anyInt());
+        assertEquals(0, job.getExpiredCount());
+        assertEquals(1, job.getRunCount());
+        verify(jobLock).unlock("order-expiry");
+    }
+
+    @Test
+    public void testRunSkipsStateChangesWhenLockedByAnotherInstance() {
+        when(jobLock.tryLock(eq("order-expiry"), anyInt())).thenReturn(false);
+        ReflectionTestUtils.setField(slotIndex, "horizon", LocalDate.now().minusDays(2));
+
+        job.run();
+
+        verify(orderDao, never()).findStartedBefore(anyInt(), any(), anyInt());
+        verify(orderDao, never()).updateStateIn(anyInt(), anyCollection(), anyInt());
+        verify(jobLock, never()).unlock(anyString());
+        assertEquals(0, job.getRunCount());
+        // 时段索引在每个实例的内存中，仍要推进
+        assertFalse(slotIndex.covers(LocalDate.now().minusDays(2)));
+    }
+
+    @Test
+    public void testRunReleasesLockWhenUpdateFails() {
+        when(orderDao.findStartedBefore(anyInt(), any(), anyInt())).thenThrow(new RuntimeException("db down"));
+
+        assertThrows(RuntimeException.class, () -> job.run());
+
+        verify(jobLock).unlock("order-expiry");
+    }
+
+    @Test
+    public void testRunPrunesDaysBeforeYesterday() {
+        when(orderDao.findStartedBefore(anyInt(), any(), anyInt())).thenReturn(Collections.emptyList());
+        when(orderDao.findEndedBefore(anyInt(), any(), anyInt())).thenReturn(Collections.emptyList());
+        LocalDateTime yesterday = LocalDate.now().minusDays(1).atStartOfDay();
+        // 前天的订单；前天23点开始、跨到昨天的订单
+        slotIndex.put(new Order(5, "user", 1, STATE_FINISH, yesterday, yesterday.minusHours(12), 2, 100));
+        slotIndex.put(new Order(6, "user", 1, STATE_FINISH, yesterday, yesterday.minusHours(1), 2, 100));
+        // 相当于索引在一天前重建
+        ReflectionTestUtils.setField(slotIndex, "horizon", LocalDate.now().minusDays(2));
+        assertEquals(4, slotIndex.size());
+
+        job.run();
+
+        assertEquals(3, slotIndex.size());
+        assertEquals(0, slotIndex.occupied(1, yesterday.toLocalDate().minusDays(1)) & 0b1 << 12);
+        assertEquals(0b1, slotIndex.occupied(1, yesterday.toLocalDate()));
+        assertFalse(slotIndex.covers(yesterday.toLocalDate().minusDays(1)));
+    }
+
+    @Test
+    public void testPruneDropsDaysBeforeNewHorizon() {
+        slotIndex.prune(LocalDate.now().plusDays(1));
+
+        assertEquals(0, slotIndex.size());
+        assertEquals(0, slotIndex.occupied(1, LocalDate.now()));
+        assertFalse(slotIndex.covers(LocalDate.now()));
+        assertTrue(slotIndex.covers(LocalDate.now().plusDays(1)));
+    }
+}
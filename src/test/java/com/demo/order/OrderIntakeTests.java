@@ -0,0 +1,124 @@
+package com.demo.order;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+import com.demo.dao.OrderDao;
+import com.demo.entity.Order;
+import com.demo.service.impl.OrderIntake;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OrderIntakeTests {
+
+    private OrderIntake intake;
+    private OrderDao orderDao;
+    private final AtomicInteger ids = new AtomicInteger();
+    private final Map<Integer, String> stored = new ConcurrentHashMap<>();
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() {
+        orderDao = mock(OrderDao.class);
+        // 与pooled-lo一样，持久化时先分配ID，整批失败回滚后ID仍留在对象上
+        when(orderDao.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Order> orders = new ArrayList<>();
+            for (Order order : (Iterable<Order>) invocation.getArgument(0)) {
+                order.setOrderID(ids.incrementAndGet());
+                orders.add(order);
+            }
+            if (orders.stream().anyMatch(order -> "bad".equals(order.getUserID()))) {
+                throw new DataIntegrityViolationException("bad row");
+            }
+            orders.forEach(order -> stored.put(order.getOrderID(), order.getUserID()));
+            return orders;
+        });
+        // ID不为0时SimpleJpaRepository.save走merge，以新ID插入一个副本，传入的对象不变
+        when(orderDao.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            if ("bad".equals(order.getUserID())) {
+                throw new DataIntegrityViolationException("bad row");
+            }
+            Order saved = order;
+            if (order.getOrderID() != 0) {
+                saved = new Order(0, order.getUserID(), order.getVenueID(), order.getState(), order.getOrderTime(),
+                        order.getStartTime(), order.getHours(), order.getTotal());
+            }
+            saved.setOrderID(ids.incrementAndGet());
+            stored.put(saved.getOrderID(), saved.getUserID());
+            return saved;
+        });
+        // 第一批开启事务时停住，其余提交在此期间进入队列，之后作为同一批写入
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        });
+
+        intake = new OrderIntake();
+        ReflectionTestUtils.setField(intake, "enabled", true);
+        ReflectionTestUtils.setField(intake, "orderDao", orderDao);
+        ReflectionTestUtils.setField(intake, "transactionManager", transactionManager);
+        intake.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        intake.stop();
+    }
+
+    @Test
+    public void testFailedBatchOnlyFailsTheBadRow() throws Exception {
+        CompletableFuture<Integer> first = intake.submit(order("first"));
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Integer> good = intake.submit(order("good"));
+        CompletableFuture<Integer> bad = intake.submit(order("bad"));
+        CompletableFuture<Integer> other = intake.submit(order("other"));
+        release.countDown();
+
+        assertEquals("first", stored.get(first.get(10, TimeUnit.SECONDS)));
+        // 返回的必须是实际插入的那一行的ID，而不是失败那一批分配的
+        assertEquals("good", stored.get(good.get(10, TimeUnit.SECONDS)));
+        assertEquals("other", stored.get(other.get(10, TimeUnit.SECONDS)));
+        assertEquals(3, stored.size());
+        ExecutionException error = assertThrows(ExecutionException.class, () -> bad.get(10, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof DataIntegrityViolationException);
+        verify(orderDao, times(2)).saveAll(anyIterable());
+        verify(orderDao, times(3)).save(any(Order.class));
+    }
+
+    @Test
+    public void testSingleRowFailureIsNotRetried() throws Exception {
+        release.countDown();
+        CompletableFuture<Integer> bad = intake.submit(order("bad"));
+
+        assertThrows(ExecutionException.class, () -> bad.get(10, TimeUnit.SECONDS));
+        verify(orderDao, never()).save(any(Order.class));
+    }
+
+    private static Order order(String userID) {
+        return new Order(0, userID, 1, 1, LocalDateTime.now(), LocalDateTime.now().plusDays(1), 2, 100);
+    }
+}
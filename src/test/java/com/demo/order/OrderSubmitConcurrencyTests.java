@@ -0,0 +1,183 @@
+package com.demo.order;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.demo.cache.CountCache;
+import com.demo.cache.VenueCache;
+import com.demo.cache.VenueSlotIndex;
+import com.demo.dao.OrderDao;
+import com.demo.dao.VenueDao;
+import com.demo.entity.Order;
+import com.demo.entity.Venue;
+import com.demo.service.impl.OrderIntake;
+import com.demo.service.impl.OrderServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OrderSubmitConcurrencyTests {
+
+    private static final int THREADS = 64;
+
+    private OrderServiceImpl orderService;
+    private OrderDao orderDao;
+    private VenueDao venueDao;
+    private final AtomicInteger ids = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        orderDao = mock(OrderDao.class);
+        venueDao = mock(VenueDao.class);
+        when(orderDao.findByStateInAndStartTimeGreaterThanEqual(anyCollection(), any())).thenReturn(Collections.emptyList());
+        when(orderDao.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setOrderID(ids.incrementAndGet());
+            return order;
+        });
+        when(venueDao.findByVenueName(anyString())).thenAnswer(invocation -> {
+            String name = invocation.getArgument(0);
+            return new Venue(Integer.parseInt(name.substring(1)), name, "", 100, "", "", "08:00", "22:00");
+        });
+
+        VenueSlotIndex slotIndex = new VenueSlotIndex();
+        ReflectionTestUtils.setField(slotIndex, "orderDao", orderDao);
+        slotIndex.rebuild();
+
+        orderService = new OrderServiceImpl();
+        ReflectionTestUtils.setField(orderService, "orderDao", orderDao);
+        VenueCache venueCache = new VenueCache();
+        ReflectionTestUtils.setField(venueCache, "venueDao", venueDao);
+        venueCache.init();
+        ReflectionTestUtils.setField(orderService, "venueCache", venueCache);
+        ReflectionTestUtils.setField(orderService, "slotIndex", slotIndex);
+        ReflectionTestUtils.setField(orderService, "countCache", new CountCache());
+        ReflectionTestUtils.setField(orderService, "orderIntake", new OrderIntake());
+    }
+
+    @Test
+    public void testConcurrentSubmitSameSlotOnlyOneWins() throws Exception {
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(10, 0);
+        List<Boolean> results = hammer(i -> orderService.submit("v1", startTime.plusHours(i % 2), 2, "user" + i));
+
+        assertEquals(1, results.stream().filter(ok -> ok).count());
+        verify(orderDao, times(1)).save(any(Order.class));
+        assertEquals(1, orderService.findDateOrder(1, startTime.toLocalDate().atStartOfDay(),
+                startTime.toLocalDate().plusDays(1).atStartOfDay()).size());
+    }
+
+    @Test
+    public void testConcurrentSubmitDifferentVenuesAllWin() throws Exception {
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(10, 0);
+        List<Boolean> results = hammer(i -> orderService.submit("v" + (i + 1), startTime, 2, "user" + i));
+
+        assertEquals(THREADS, results.stream().filter(ok -> ok).count());
+        verify(orderDao, times(THREADS)).save(any(Order.class));
+    }
+
+    @Test
+    public void testSubmitAcrossMidnightBlocksNextMorning() {
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(23, 0);
+        orderService.submit("v1", startTime, 3, "user");
+
+        assertThrows(RuntimeException.class, () -> orderService.submit("v1", startTime.plusHours(1), 1, "other"));
+        assertEquals(0b11, orderService.findOccupiedSlots(1, startTime.toLocalDate().plusDays(1)));
+    }
+
+    @Test
+    public void testQueuedSubmitWritesInBatches() throws Exception {
+        AtomicInteger batches = new AtomicInteger();
+        AtomicInteger rows = new AtomicInteger();
+        OrderIntake intake = new OrderIntake();
+        when(orderDao.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Order> orders = new ArrayList<>();
+            for (Order order : (Iterable<Order>) invocation.getArgument(0)) {
+                order.setOrderID(ids.incrementAndGet());
+                orders.add(order);
+            }
+            if (batches.incrementAndGet() == 1) {
+                // 第一批写入期间其余提交都进入队列，之后必须合并成一批
+                awaitQueued(intake, THREADS - orders.size());
+            }
+            rows.addAndGet(orders.size());
+            return orders;
+        });
+        ReflectionTestUtils.setField(intake, "enabled", true);
+        ReflectionTestUtils.setField(intake, "orderDao", orderDao);
+        ReflectionTestUtils.setField(intake, "transactionManager", mock(PlatformTransactionManager.class));
+        intake.start();
+        ReflectionTestUtils.setField(orderService, "orderIntake", intake);
+
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(10, 0);
+        try {
+            List<Boolean> results = hammer(i -> orderService.submit("v" + (i + 1), startTime, 2, "user" + i));
+
+            assertEquals(THREADS, results.stream().filter(ok -> ok).count());
+            assertEquals(THREADS, rows.get());
+            assertTrue(batches.get() < rows.get());
+            assertTrue(batches.get() <= 2);
+            verify(orderDao, never()).save(any(Order.class));
+            assertEquals(1, orderService.findDateOrder(THREADS, startTime.toLocalDate().atStartOfDay(),
+                    startTime.toLocalDate().plusDays(1).atStartOfDay()).size());
+        } finally {
+            intake.stop();
+        }
+    }
+
+    private static void awaitQueued(OrderIntake intake, int size) throws InterruptedException {
+        Collection<?> queue = (Collection<?>) ReflectionTestUtils.getField(intake, "queue");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (queue.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private List<Boolean> hammer(Submit submit) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int n = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    submit.run(n);
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        List<Boolean> results = new ArrayList<>();
+        for (Future<Boolean> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+        return results;
+    }
+
+    private interface Submit {
+        void run(int i);
+    }
+}
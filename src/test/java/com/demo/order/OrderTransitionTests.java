@@ -0,0 +1,84 @@
+package com.demo.order;
+
+import static com.demo.service.OrderService.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.demo.cache.CountCache;
+import com.demo.cache.VenueSlotIndex;
+import com.demo.dao.OrderDao;
+import com.demo.entity.Order;
+import com.demo.service.VenueStatsService;
+import com.demo.service.impl.OrderServiceImpl;
+import com.demo.service.impl.StateMachine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+
+public class OrderTransitionTests {
+
+    private OrderServiceImpl orderService;
+    private OrderDao orderDao;
+    private VenueStatsService venueStatsService;
+
+    @BeforeEach
+    public void setUp() {
+        orderDao = mock(OrderDao.class);
+        venueStatsService = mock(VenueStatsService.class);
+        StateMachine stateMachine = new StateMachine();
+        ReflectionTestUtils.setField(stateMachine, "orderDao", orderDao);
+        orderService = new OrderServiceImpl();
+        ReflectionTestUtils.setField(orderService, "orderDao", orderDao);
+        ReflectionTestUtils.setField(orderService, "stateMachine", stateMachine);
+        ReflectionTestUtils.setField(orderService, "venueStatsService", venueStatsService);
+        ReflectionTestUtils.setField(orderService, "slotIndex", mock(VenueSlotIndex.class));
+        ReflectionTestUtils.setField(orderService, "countCache", new CountCache());
+    }
+
+    @Test
+    public void testConfirmRecordsWithoutReadingOrder() {
+        when(orderDao.transitState(STATE_WAIT, 1, Collections.singletonList(STATE_NO_AUDIT))).thenReturn(1);
+
+        orderService.confirmOrder(1);
+
+        verify(venueStatsService).record(1, 1);
+        verify(orderDao, never()).findByOrderID(anyInt());
+    }
+
+    @Test
+    public void testRejectApprovedOrderDeductsStats() {
+        when(orderDao.transitState(STATE_REJECT, 1, Collections.singletonList(STATE_WAIT))).thenReturn(1);
+
+        orderService.rejectOrder(1);
+
+        verify(venueStatsService).record(1, -1);
+        verify(orderDao, never()).findByOrderID(anyInt());
+    }
+
+    @Test
+    public void testRejectPendingOrderLeavesStats() {
+        when(orderDao.transitState(STATE_REJECT, 1, Collections.singletonList(STATE_NO_AUDIT))).thenReturn(1);
+
+        orderService.rejectOrder(1);
+
+        verify(venueStatsService, never()).record(anyInt(), anyInt());
+        verify(orderDao, never()).findByOrderID(anyInt());
+    }
+
+    @Test
+    public void testRejectFinishedOrderFails() {
+        when(orderDao.findByOrderID(1)).thenReturn(new Order());
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> orderService.rejectOrder(1));
+
+        assertEquals("订单状态不允许该操作", e.getMessage());
+        verify(orderDao, times(2)).transitState(eq(STATE_REJECT), eq(1), anyCollection());
+        verify(venueStatsService, never()).record(anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,159 @@
+package com.demo.order;
+
+import static com.demo.service.OrderService.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.demo.cache.CountCache;
+import com.demo.cache.VenueCache;
+import com.demo.cache.VenueSlotIndex;
+import com.demo.dao.OrderDao;
+import com.demo.dao.VenueDao;
+import com.demo.entity.Order;
+import com.demo.entity.Venue;
+import com.demo.service.impl.OrderIntake;
+import com.demo.service.impl.OrderServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class VenueSlotIndexTests {
+
+    private VenueSlotIndex slotIndex;
+    private OrderDao orderDao;
+    private LocalDateTime tomorrow;
+
+    @BeforeEach
+    public void setUp() {
+        orderDao = mock(OrderDao.class);
+        when(orderDao.findByStateInAndStartTimeGreaterThanEqual(anyCollection(), any())).thenReturn(Collections.emptyList());
+        slotIndex = new VenueSlotIndex();
+        ReflectionTestUtils.setField(slotIndex, "orderDao", orderDao);
+        slotIndex.rebuild();
+        tomorrow = LocalDate.now().plusDays(1).atStartOfDay();
+        // 已有订单：明天10点到12点
+        slotIndex.put(new Order(1, "user", 1, STATE_WAIT, tomorrow, tomorrow.plusHours(10), 2, 100));
+    }
+
+    @Test
+    public void testClaimConflictingWithBookingIsRejected() {
+        assertEquals(0, slotIndex.claim(1, tomorrow.plusHours(11), 2, 0));
+        assertEquals(0, slotIndex.claim(1, tomorrow.plusHours(9), 2, 0));
+
+        int claim = slotIndex.claim(1, tomorrow.plusHours(12), 1, 0);
+        assertTrue(claim < 0);
+        assertEquals(0b111 << 10, slotIndex.occupied(1, tomorrow.toLocalDate()));
+        // 占位不作为订单返回
+        assertEquals(1, slotIndex.orders(1, tomorrow.toLocalDate()).size());
+        // 其他场馆不受影响
+        assertTrue(slotIndex.claim(2, tomorrow.plusHours(10), 2, 0) < 0);
+    }
+
+    @Test
+    public void testClaimIgnoresOrderBeingModified() {
+        assertTrue(slotIndex.claim(1, tomorrow.plusHours(11), 2, 1) < 0);
+    }
+
+    @Test
+    public void testClaimAcrossMidnightChecksBothDays() {
+        slotIndex.put(new Order(2, "user", 1, STATE_WAIT, tomorrow, tomorrow.plusDays(1).plusHours(1), 1, 100));
+
+        assertEquals(0, slotIndex.claim(1, tomorrow.plusHours(23), 3, 0));
+        assertTrue(slotIndex.claim(1, tomorrow.plusHours(23), 2, 0) < 0);
+        assertEquals(0b11, slotIndex.occupied(1, tomorrow.toLocalDate().plusDays(1)));
+    }
+
+    @Test
+    public void testConcurrentClaimsOnlyOneWins() throws Exception {
+        int threads = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int hour = 13 + i % 2;
+            futures.add(pool.submit(() -> {
+                start.await();
+                return slotIndex.claim(1, tomorrow.plusHours(hour), 2, 0);
+            }));
+        }
+        start.countDown();
+        int won = 0;
+        for (Future<Integer> future : futures) {
+            if (future.get(10, TimeUnit.SECONDS) != 0) {
+                won++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(1, won);
+    }
+
+    @Test
+    public void testReleaseFreesTheSlot() {
+        int claim = slotIndex.claim(1, tomorrow.plusHours(14), 2, 0);
+        assertEquals(0, slotIndex.claim(1, tomorrow.plusHours(14), 2, 0));
+
+        slotIndex.release(claim);
+
+        assertEquals(0b11 << 10, slotIndex.occupied(1, tomorrow.toLocalDate()));
+        assertTrue(slotIndex.claim(1, tomorrow.plusHours(14), 2, 0) < 0);
+    }
+
+    @Test
+    public void testFailedSaveReleasesClaim() {
+        VenueDao venueDao = mock(VenueDao.class);
+        when(venueDao.findByVenueName(anyString())).thenReturn(new Venue(1, "v1", "", 100, "", "", "08:00", "22:00"));
+        when(orderDao.save(any(Order.class))).thenThrow(new DataAccessResourceFailureException("db down"));
+        OrderServiceImpl orderService = new OrderServiceImpl();
+        VenueCache venueCache = new VenueCache();
+        ReflectionTestUtils.setField(venueCache, "venueDao", venueDao);
+        venueCache.init();
+        ReflectionTestUtils.setField(orderService, "orderDao", orderDao);
+        ReflectionTestUtils.setField(orderService, "venueCache", venueCache);
+        ReflectionTestUtils.setField(orderService, "slotIndex", slotIndex);
+        ReflectionTestUtils.setField(orderService, "countCache", new CountCache());
+        ReflectionTestUtils.setField(orderService, "orderIntake", new OrderIntake());
+
+        assertThrows(RuntimeException.class, () -> orderService.submit("v1", tomorrow.plusHours(14), 2, "user"));
+
+        assertEquals(0b11 << 10, slotIndex.occupied(1, tomorrow.toLocalDate()));
+        assertEquals(1, slotIndex.size());
+        assertTrue(slotIndex.claim(1, tomorrow.plusHours(14), 2, 0) < 0);
+    }
+
+    @Test
+    public void testPrunePastHorizon() {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        // 昨天的订单，昨天23点开始、跨到今天的订单
+        slotIndex.put(new Order(3, "user", 1, STATE_FINISH, today, today.minusHours(12), 2, 100));
+        slotIndex.put(new Order(4, "user", 1, STATE_FINISH, today, today.minusHours(1), 2, 100));
+        assertEquals(3, slotIndex.size());
+
+        slotIndex.prune(today.toLocalDate());
+
+        assertEquals(2, slotIndex.size());
+        assertFalse(slotIndex.covers(today.toLocalDate().minusDays(1)));
+        assertEquals(0b1, slotIndex.occupied(1, today.toLocalDate()));
+        assertEquals(0, slotIndex.occupied(1, today.toLocalDate().minusDays(1)) & 0b11 << 12);
+
+        // 起始日期不会后退
+        slotIndex.prune(today.toLocalDate().minusDays(5));
+        assertFalse(slotIndex.covers(today.toLocalDate().minusDays(1)));
+        assertEquals(2, slotIndex.size());
+    }
+}
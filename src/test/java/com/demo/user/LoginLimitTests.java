@@ -0,0 +1,138 @@
+package com.demo.user;
+
+import com.demo.auth.ClientAddressFilter;
+import com.demo.service.impl.LoginLimitServiceImpl;
+import com.demo.utils.RateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginLimitTests {
+
+    private LoginLimitServiceImpl loginLimitService;
+
+    @BeforeEach
+    public void setUp() {
+        loginLimitService = new LoginLimitServiceImpl();
+        loginLimitService.init();
+    }
+
+    @Test
+    public void testForwardedHeaderIgnoredByDefault() throws Exception {
+        ClientAddressFilter filter = new ClientAddressFilter();
+        filter.init();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader(ClientAddressFilter.HEADER, "203.0.113.7");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // 默认不信任任何代理，内网直连的客户端也不能伪造地址
+        assertEquals("10.0.0.1", chain.getRequest().getRemoteAddr());
+    }
+
+    @Test
+    public void testUserLimit() {
+        for (int i = 0; i < 5; i++) {
+            assertFalse(loginLimitService.overLimit("test", "10.0.0." + i));
+        }
+        assertTrue(loginLimitService.overLimit("TEST", "10.0.0.9"));
+        assertFalse(loginLimitService.overLimit("other", "10.0.0.9"));
+        assertEquals(1, loginLimitService.getRejectedByUser());
+        assertEquals(0, loginLimitService.getRejectedByIP());
+    }
+
+    @Test
+    public void testIPLimitDoesNotConsumeUserTokens() {
+        for (int i = 0; i < 20; i++) {
+            assertFalse(loginLimitService.overLimit("user" + i, "10.0.0.1"));
+        }
+        assertTrue(loginLimitService.overLimit("victim", "10.0.0.1"));
+        assertEquals(1, loginLimitService.getRejectedByIP());
+        for (int i = 0; i < 5; i++) {
+            assertFalse(loginLimitService.overLimit("victim", "10.0.0.2"));
+        }
+    }
+
+    @Test
+    public void testRefill() {
+        RateLimiter limiter = new RateLimiter(2, 60, 10);
+        long now = 0;
+        assertTrue((boolean) ReflectionTestUtils.invokeMethod(limiter, "tryAcquire", "k", now));
+        assertTrue((boolean) ReflectionTestUtils.invokeMethod(limiter, "tryAcquire", "k", now));
+        assertFalse((boolean) ReflectionTestUtils.invokeMethod(limiter, "tryAcquire", "k", now));
+        now += TimeUnit.SECONDS.toNanos(1);
+        assertTrue((boolean) ReflectionTestUtils.invokeMethod(limiter, "tryAcquire", "k", now));
+        assertFalse((boolean) ReflectionTestUtils.invokeMethod(limiter, "tryAcquire", "k", now));
+    }
+
+    @Test
+    public void testKeysAreBounded() {
+        RateLimiter limiter = new RateLimiter(1, 60, 100);
+        long now = 0;
+        for (int i = 0; i < 100; i++) {
+            ReflectionTestUtils.invokeMethod(limiter, "tryAcquire", "k" + i, now);
+        }
+        // 桶都还没补满，新键进入溢出桶
+        assertTrue((boolean) ReflectionTestUtils.invokeMethod(limiter, "tryAcquire", "new1", now));
+        assertFalse((boolean) ReflectionTestUtils.invokeMethod(limiter, "tryAcquire", "new2", now));
+        assertEquals(100, limiter.size());
+        // 一分钟后旧桶都已补满，被清掉
+        now += TimeUnit.MINUTES.toNanos(1);
+        assertTrue((boolean) ReflectionTestUtils.invokeMethod(limiter, "tryAcquire", "new3", now));
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    public void testSweepIsRateLimited() {
+        RateLimiter limiter = new RateLimiter(1, 60, 100);
+        long now = 0;
+        for (int i = 0; i < 100; i++) {
+            ReflectionTestUtils.invokeMethod(limiter, "tryAcquire", "k" + i, now);
+        }
+        // 表满且没有可清理的桶时，大量新键只触发一次遍历
+        for (int i = 0; i < 1000; i++) {
+            ReflectionTestUtils.invokeMethod(limiter, "tryAcquire", "flood" + i, now + i);
+        }
+        assertEquals(1, limiter.getSweeps());
+        now += TimeUnit.SECONDS.toNanos(1);
+        ReflectionTestUtils.invokeMethod(limiter, "tryAcquire", "late", now);
+        assertEquals(2, limiter.getSweeps());
+    }
+
+    @Test
+    public void testConcurrentAcquireGrantsExactlyBurst() throws Exception {
+        RateLimiter limiter = new RateLimiter(50, 1, 10);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        for (int i = 0; i < 400; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (limiter.tryAcquire("k")) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(50, granted.get());
+    }
+}
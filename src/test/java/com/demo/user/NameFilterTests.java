@@ -0,0 +1,118 @@
+package com.demo.user;
+
+import com.demo.cache.BloomFilter;
+import com.demo.cache.CountCache;
+import com.demo.cache.NameFilter;
+import com.demo.dao.UserDao;
+import com.demo.dao.VenueDao;
+import com.demo.entity.User;
+import com.demo.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class NameFilterTests {
+
+    private NameFilter nameFilter;
+    private UserServiceImpl userService;
+    private UserDao userDao;
+
+    @BeforeEach
+    public void setUp() {
+        userDao = mock(UserDao.class);
+        VenueDao venueDao = mock(VenueDao.class);
+        when(userDao.count()).thenReturn(2L);
+        when(userDao.findIDAndUserIDAfter(eq(0), any(Pageable.class)))
+                .thenReturn(Arrays.asList(new Object[]{1, "test"}, new Object[]{8, "admin"}));
+        when(venueDao.findAllVenueNames()).thenReturn(Collections.singletonList("场馆2"));
+        nameFilter = new NameFilter();
+        ReflectionTestUtils.setField(nameFilter, "userDao", userDao);
+        ReflectionTestUtils.setField(nameFilter, "venueDao", venueDao);
+        nameFilter.init();
+
+        userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "userDao", userDao);
+        ReflectionTestUtils.setField(userService, "countCache", new CountCache());
+        ReflectionTestUtils.setField(userService, "nameFilter", nameFilter);
+    }
+
+    @Test
+    public void testFreeUserIDSkipsDatabase() {
+        assertEquals(0, userService.countUserID("someone_new"));
+        verify(userDao, never()).existsByUserID(anyString());
+        verify(userDao, never()).countByUserID(anyString());
+        assertEquals(1, nameFilter.getNegatives());
+    }
+
+    @Test
+    public void testExistingUserIDConfirmedByDatabase() {
+        when(userDao.existsByUserID("test")).thenReturn(true);
+
+        assertEquals(1, userService.countUserID("test"));
+        verify(userDao).existsByUserID("test");
+    }
+
+    @Test
+    public void testMatchesColumnCollation() {
+        assertTrue(nameFilter.mightContainUserID("TEST"));
+        assertTrue(nameFilter.mightContainUserID("Admin  "));
+        assertTrue(nameFilter.mightContainVenueName("场馆2"));
+        assertFalse(nameFilter.mightContainVenueName("场馆9"));
+    }
+
+    @Test
+    public void testCreatedUserIsVisible() {
+        when(userDao.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        User user = new User();
+        user.setUserID("newUser");
+        userService.create(user);
+
+        assertTrue(nameFilter.mightContainUserID("newuser"));
+    }
+
+    @Test
+    public void testRebuildPagesThroughUsers() {
+        reset(userDao);
+        when(userDao.count()).thenReturn(5001L);
+        Object[][] first = new Object[5000][];
+        for (int i = 0; i < first.length; i++) {
+            first[i] = new Object[]{i + 1, "user" + (i + 1)};
+        }
+        when(userDao.findIDAndUserIDAfter(eq(0), any(Pageable.class))).thenReturn(Arrays.asList(first));
+        when(userDao.findIDAndUserIDAfter(eq(5000), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(new Object[]{5001, "last"}));
+
+        nameFilter.rebuild();
+
+        assertTrue(nameFilter.mightContainUserID("user1"));
+        assertTrue(nameFilter.mightContainUserID("last"));
+        verify(userDao, times(2)).findIDAndUserIDAfter(anyInt(), any(Pageable.class));
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        BloomFilter bloom = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            bloom.put("user" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(bloom.mightContain("user" + i));
+            if (bloom.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "误判" + falsePositives + "次");
+    }
+}
@@ -0,0 +1,110 @@
+package com.demo.user;
+
+import com.demo.auth.TokenCodec;
+import com.demo.auth.TokenSessionFilter;
+import com.demo.cache.UserCache;
+import com.demo.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TokenSessionTests {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private TokenSessionFilter filter;
+    private UserCache userCache;
+
+    @BeforeEach
+    public void setUp() {
+        userCache = mock(UserCache.class);
+        when(userCache.findByUserID("test")).thenReturn(new User(1, "test", "test", null, "", "", 0, ""));
+        when(userCache.findByUserID("admin")).thenReturn(new User(8, "admin", "admin", null, "", "", 1, ""));
+        filter = new TokenSessionFilter();
+        ReflectionTestUtils.setField(filter, "secret", SECRET);
+        ReflectionTestUtils.setField(filter, "userCache", userCache);
+        filter.init();
+    }
+
+    @Test
+    public void testTokenRoundTrip() {
+        TokenCodec codec = new TokenCodec(SECRET, 60);
+        String token = codec.issue("test.user", true, 1000);
+
+        TokenCodec.Claims claims = codec.verify(token, 1059);
+        assertEquals("test.user", claims.getUserID());
+        assertTrue(claims.isAdmin());
+        assertNull(codec.verify(token, 1060));
+        assertNull(new TokenCodec(SECRET.replace('0', '1'), 60).verify(token, 1000));
+        assertNull(codec.verify(token.substring(1), 1000));
+        assertNull(codec.verify("garbage", 1000));
+    }
+
+    @Test
+    public void testLoginIssuesCookieAndNextRequestIsAuthenticated() throws Exception {
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        HttpServletRequest login = run(new MockHttpServletRequest(), loginResponse);
+        login.getSession().setAttribute("user", new User(1, "test", "test", "pw", "", "", 0, ""));
+
+        String header = loginResponse.getHeader("Set-Cookie");
+        assertTrue(header.startsWith(TokenSessionFilter.COOKIE + "="));
+        assertTrue(header.contains("HttpOnly"));
+        String token = header.substring(TokenSessionFilter.COOKIE.length() + 1, header.indexOf(';'));
+
+        MockHttpServletRequest next = new MockHttpServletRequest();
+        next.setCookies(new Cookie(TokenSessionFilter.COOKIE, token));
+        HttpSession session = run(next, new MockHttpServletResponse()).getSession(false);
+
+        User user = (User) session.getAttribute("user");
+        assertEquals("test", user.getUserID());
+        assertNull(user.getPassword());
+        assertNull(session.getAttribute("admin"));
+    }
+
+    @Test
+    public void testRejectsTamperedAndRevokedTokens() throws Exception {
+        TokenCodec codec = new TokenCodec(SECRET, 60);
+        long now = System.currentTimeMillis() / 1000;
+
+        MockHttpServletRequest forged = new MockHttpServletRequest();
+        forged.setCookies(new Cookie(TokenSessionFilter.COOKIE, new TokenCodec("x" + SECRET, 60).issue("admin", true, now)));
+        assertNull(run(forged, new MockHttpServletResponse()).getSession(false));
+
+        // test不是管理员，带管理员角色的令牌不被接受
+        MockHttpServletRequest revoked = new MockHttpServletRequest();
+        revoked.setCookies(new Cookie(TokenSessionFilter.COOKIE, codec.issue("test", true, now)));
+        assertNull(run(revoked, new MockHttpServletResponse()).getSession(false));
+
+        MockHttpServletRequest admin = new MockHttpServletRequest();
+        admin.setCookies(new Cookie(TokenSessionFilter.COOKIE, codec.issue("admin", true, now)));
+        assertNotNull(run(admin, new MockHttpServletResponse()).getSession(false).getAttribute("admin"));
+    }
+
+    @Test
+    public void testLogoutClearsCookie() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(TokenSessionFilter.COOKIE,
+                new TokenCodec(SECRET, 60).issue("test", false, System.currentTimeMillis() / 1000)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        run(request, response).getSession().removeAttribute("user");
+
+        assertTrue(response.getHeader("Set-Cookie").contains("Max-Age=0"));
+    }
+
+    private HttpServletRequest run(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return (HttpServletRequest) chain.getRequest();
+    }
+}
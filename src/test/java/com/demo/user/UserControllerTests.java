@@ -9,6 +9,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.demo.controller.user.UserController;
 import com.demo.entity.User;
+import com.demo.service.LoginLimitService;
 import com.demo.service.UserService;
 import com.demo.utils.FileUtil;
 import org.junit.jupiter.api.AfterEach;
@@ -27,7 +28,7 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
-@WebMvcTest(UserController.class)
+@WebMvcTest(value = UserController.class, properties = "auth.trusted-proxies=10\\.0\\.0\\.[12]")
 public class UserControllerTests {
 
     @Autowired
@@ -36,6 +37,9 @@ public class UserControllerTests {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private LoginLimitService loginLimitService;
+
     private MockHttpServletRequest request;
 
     private MockedStatic<FileUtil> mockedStatic = Mockito.mockStatic(FileUtil.class);
@@ -245,6 +249,49 @@ public class UserControllerTests {
         verify(userService).checkLogin(userID, password);
     }
 
+    @Test
+    public void testLoginOverLimit() throws Exception {
+        when(loginLimitService.overLimit("1", "127.0.0.1")).thenReturn(true);
+
+        mockMvc.perform(post("/loginCheck.do")
+                        .param("userID", "1")
+                        .param("password", "password"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("limited"));
+
+        verify(userService, never()).checkLogin(anyString(), anyString());
+    }
+
+    @Test
+    public void testLoginLimitUsesForwardedClientBehindTrustedProxy() throws Exception {
+        mockMvc.perform(post("/loginCheck.do")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.1");
+                            return request;
+                        })
+                        .header("X-Forwarded-For", "203.0.113.7, 10.0.0.2")
+                        .param("userID", "1")
+                        .param("password", "password"))
+                .andExpect(status().isOk());
+
+        verify(loginLimitService).overLimit("1", "203.0.113.7");
+    }
+
+    @Test
+    public void testLoginLimitIgnoresForwardedHeaderFromUntrustedClient() throws Exception {
+        mockMvc.perform(post("/loginCheck.do")
+                        .with(request -> {
+                            request.setRemoteAddr("198.51.100.9");
+                            return request;
+                        })
+                        .header("X-Forwarded-For", "203.0.113.7")
+                        .param("userID", "1")
+                        .param("password", "password"))
+                .andExpect(status().isOk());
+
+        verify(loginLimitService).overLimit("1", "198.51.100.9");
+    }
+
     // BUG: 没有检查参数为空的情况
     @Test
     public void testLoginWithEmptyParam() throws Exception {
@@ -560,8 +607,10 @@ public class UserControllerTests {
 
         when(userService.findByUserID(anyString())).thenReturn(user);
 
-        mockMvc.perform(get("/checkPassword.do")
-                        .param("userID", userID)
+        User loginUser = new User();
+        loginUser.setUserID(userID);
+        mockMvc.perform(get("/checkPassword.do").sessionAttr("user", loginUser)
+                        .param("userID", "other")
                         .param("password", password))
                 .andExpect(status().isOk())
                 .andExpect(content().string("true"));
@@ -582,8 +631,10 @@ public class UserControllerTests {
 
         when(userService.findByUserID(anyString())).thenReturn(user);
 
-        mockMvc.perform(get("/checkPassword.do")
-                        .param("userID", userID)
+        User loginUser = new User();
+        loginUser.setUserID(userID);
+        mockMvc.perform(get("/checkPassword.do").sessionAttr("user", loginUser)
+                        .param("userID", "other")
                         .param("password", passwordWrong))
                 .andExpect(status().isOk())
                 .andExpect(content().string("false"));
@@ -600,8 +651,10 @@ public class UserControllerTests {
 
         when(userService.findByUserID(anyString())).thenReturn(null);  // user not found
 
-        mockMvc.perform(get("/checkPassword.do")
-                        .param("userID", userID)
+        User loginUser = new User();
+        loginUser.setUserID(userID);
+        mockMvc.perform(get("/checkPassword.do").sessionAttr("user", loginUser)
+                        .param("userID", "other")
                         .param("password", password))
                 .andExpect(status().isNotFound());
 
@@ -611,7 +664,7 @@ public class UserControllerTests {
     // BUG: 没有检查参数为 null的情况
     @Test
     public void testCheckPasswordWithEmptyParam() throws Exception {
-        mockMvc.perform(get("/checkPassword.do"))
+        mockMvc.perform(get("/checkPassword.do").sessionAttr("user", new User()))
                 .andExpect(status().isBadRequest());
     }
 
@@ -0,0 +1,66 @@
+package com.demo.user;
+
+import com.demo.cache.CountCache;
+import com.demo.cache.NameFilter;
+import com.demo.dao.UserDao;
+import com.demo.entity.User;
+import com.demo.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class UserCreateTests {
+
+    private static final int TABLE_SIZE = 2_000_000;
+
+    private UserServiceImpl userService;
+    private UserDao userDao;
+    private final AtomicInteger nextID = new AtomicInteger(TABLE_SIZE);
+
+    @BeforeEach
+    public void setUp() {
+        userDao = mock(UserDao.class);
+        when(userDao.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(nextID.incrementAndGet());
+            return user;
+        });
+        // 模拟一张有两百万用户的表，整表读取会非常慢
+        when(userDao.findAll()).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            throw new AssertionError("创建用户不应读取整张用户表");
+        });
+        userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "userDao", userDao);
+        ReflectionTestUtils.setField(userService, "countCache", new CountCache());
+        ReflectionTestUtils.setField(userService, "nameFilter", new NameFilter());
+    }
+
+    @Test
+    public void testCreateReturnsGeneratedID() {
+        User user = new User(0, "newUser", "new", "pw", "new@example.com", "13800000000", 0, "");
+
+        assertEquals(TABLE_SIZE + 1, userService.create(user));
+        verify(userDao).save(user);
+        verifyNoMoreInteractions(userDao);
+    }
+
+    @Test
+    public void testCreateCostIndependentOfTableSize() {
+        int n = 10_000;
+        for (int i = 0; i < n; i++) {
+            userService.create(new User(0, "user" + i, "user" + i, "pw", "", "", 0, ""));
+        }
+
+        verify(userDao, times(n)).save(any(User.class));
+        verify(userDao, never()).findAll();
+        verify(userDao, never()).count();
+        assertEquals(TABLE_SIZE + n, nextID.get());
+    }
+}
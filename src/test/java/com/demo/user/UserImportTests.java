@@ -0,0 +1,80 @@
+package com.demo.user;
+
+import com.demo.cache.CountCache;
+import com.demo.cache.NameFilter;
+import com.demo.dao.UserDao;
+import com.demo.entity.User;
+import com.demo.entity.vo.ImportReport;
+import com.demo.service.impl.ImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+public class UserImportTests {
+
+    private ImportServiceImpl importService;
+    private UserDao userDao;
+    private final List<User> saved = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        userDao = mock(UserDao.class);
+        when(userDao.saveAll(anyIterable())).thenAnswer(invocation -> {
+            for (User user : (Iterable<User>) invocation.getArgument(0)) {
+                saved.add(user);
+            }
+            return null;
+        });
+        importService = new ImportServiceImpl();
+        ReflectionTestUtils.setField(importService, "userDao", userDao);
+        ReflectionTestUtils.setField(importService, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(importService, "countCache", new CountCache());
+        ReflectionTestUtils.setField(importService, "nameFilter", new NameFilter());
+    }
+
+    @Test
+    public void testImportReportsRowErrors() throws Exception {
+        when(userDao.findUserIDIn(anyCollection())).thenReturn(Collections.singletonList("taken"));
+        String csv = "\uFEFFuserID,password,userName,email\r\n" +
+                "alice,pw,\"Alice, A\",a@example.com\r\n" +
+                "taken,pw,,\r\n" +
+                ",pw,,\r\n" +
+                "alice,pw2,,\r\n" +
+                "\r\n" +
+                "bob,,,\r\n" +
+                "carol,pw,,\r\n";
+
+        ImportReport report = importService.importUsers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(6, report.getTotal());
+        assertEquals(2, report.getImported());
+        assertEquals("[alice, carol]", saved.stream().map(User::getUserID).collect(Collectors.toList()).toString());
+        assertEquals("Alice, A", saved.get(0).getUserName());
+        assertEquals("[3, 4, 5, 7]", report.getErrors().stream().map(ImportReport.RowError::getRow)
+                .sorted().collect(Collectors.toList()).toString());
+        verify(userDao, times(1)).findUserIDIn(anyCollection());
+        verify(userDao, times(1)).saveAll(anyIterable());
+    }
+
+    @Test
+    public void testImportWithoutRequiredColumn() throws Exception {
+        ImportReport report = importService.importUsers(new ByteArrayInputStream("userID,email\nalice,a@example.com\n".getBytes()));
+
+        assertEquals(0, report.getImported());
+        assertEquals(1, report.getErrors().get(0).getRow());
+        verify(userDao, never()).saveAll(anyIterable());
+    }
+}
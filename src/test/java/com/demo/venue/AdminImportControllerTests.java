@@ -0,0 +1,69 @@
+package com.demo.venue;
+
+import com.demo.controller.admin.AdminImportController;
+import com.demo.entity.vo.ImportReport;
+import com.demo.service.ImportService;
+import com.demo.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminImportController.class)
+public class AdminImportControllerTests {
+
+    private static final User ADMIN = new User(1, "admin", "admin", "admin", "", "", 1, "");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ImportService importService;
+
+    @Test
+    public void testImportVenuesReturnsReport() throws Exception {
+        ImportReport report = new ImportReport();
+        report.setTotal(2);
+        report.setImported(1);
+        report.addError(3, "场馆名称已存在");
+        when(importService.importVenues(any(InputStream.class))).thenReturn(report);
+        MockMultipartFile file = new MockMultipartFile("file", "venues.csv", "text/csv",
+                "venueName,price,open_time,close_time\nA,100,08:00,22:00\nB,100,08:00,22:00\n".getBytes());
+
+        mockMvc.perform(multipart("/admin/importVenues.do").file(file).sessionAttr("admin", ADMIN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("场馆名称已存在"));
+    }
+
+    @Test
+    public void testImportUsers() throws Exception {
+        when(importService.importUsers(any(InputStream.class))).thenReturn(new ImportReport());
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", "userID,password\n".getBytes());
+
+        mockMvc.perform(multipart("/admin/importUsers.do").file(file).sessionAttr("admin", ADMIN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(0));
+        verify(importService).importUsers(any(InputStream.class));
+    }
+
+    @Test
+    public void testImportWithoutFileIsBadRequest() throws Exception {
+        mockMvc.perform(multipart("/admin/importVenues.do").sessionAttr("admin", ADMIN))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(multipart("/admin/importUsers.do").sessionAttr("admin", ADMIN))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(importService);
+    }
+}
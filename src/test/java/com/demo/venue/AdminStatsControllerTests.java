@@ -0,0 +1,52 @@
+package com.demo.venue;
+
+import com.demo.controller.admin.AdminStatsController;
+import com.demo.entity.vo.VenueStatsVo;
+import com.demo.service.VenueStatsService;
+import com.demo.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminStatsController.class)
+public class AdminStatsControllerTests {
+
+    private static final User ADMIN = new User(1, "admin", "admin", "admin", "", "", 1, "");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private VenueStatsService venueStatsService;
+
+    @Test
+    public void testVenueStatsWithDateRange() throws Exception {
+        LocalDate day = LocalDate.of(2023, 3, 31);
+        when(venueStatsService.findStats(day, day.plusDays(1))).thenReturn(Collections.singletonList(
+                new VenueStatsVo(1, "venue", day, 2, 5, 500, 0.5)));
+
+        mockMvc.perform(get("/admin/venueStats.do").sessionAttr("admin", ADMIN).param("startDate", "2023-03-31").param("endDate", "2023-04-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].venueName").value("venue"))
+                .andExpect(jsonPath("$[0].day").value("2023-03-31"))
+                .andExpect(jsonPath("$[0].revenue").value(500))
+                .andExpect(jsonPath("$[0].utilization").value(0.5));
+    }
+
+    @Test
+    public void testVenueStatsDefaultsToLastSevenDays() throws Exception {
+        mockMvc.perform(get("/admin/venueStats.do").sessionAttr("admin", ADMIN))
+                .andExpect(status().isOk());
+
+        verify(venueStatsService).findStats(LocalDate.now().minusDays(6), LocalDate.now());
+    }
+}
@@ -73,7 +73,7 @@ public class AdminVenueControllerTests {
         when(venueService.findAll(pageable))
                 .thenReturn(page);
         try {
-            mockMvc.perform(get("/venue_manage"))
+            mockMvc.perform(get("/venue_manage").session((MockHttpSession) request.getSession()))
                     .andExpect(status().isOk())
                     .andExpect(model().attribute("total", 2));
             verify(venueService).findAll(pageable);
@@ -113,7 +113,7 @@ public class AdminVenueControllerTests {
 //        Page<Venue> vs = new PageImpl<>(Collections.emptyList(), pageable, 1);
 //        System.out.println(new PageImpl<>(Collections.emptyList(), pageable, 0).getTotalElements());
 
-        mockMvc.perform(get("/venue_manage"))
+        mockMvc.perform(get("/venue_manage").session((MockHttpSession) request.getSession()))
                 .andExpect(status().isOk())
                 .andExpect(view().name("admin/venue_manage"))
                 .andExpect(model().attribute("total", 0));
@@ -128,7 +128,7 @@ public class AdminVenueControllerTests {
 //                        new Venue(1, "venue_name", "description", 1, "", "address", CORRECT_OPEN_TIME, CORRECT_CLOSE_TIME)
 //                ), pageable, 1));
 //
-//        mockMvc.perform(get("/venue_manage"))
+//        mockMvc.perform(get("/venue_manage").session((MockHttpSession) request.getSession()))
 //                .andExpect(status().isOk())
 //                .andExpect(view().name("admin/venue_manage"))
 //                .andExpect(model().attribute("total", 1));
@@ -143,7 +143,7 @@ public class AdminVenueControllerTests {
         when(venueService.findByVenueID(1))
                 .thenReturn(venue);
 
-        mockMvc.perform(get("/venue_edit?venueID=1"))
+        mockMvc.perform(get("/venue_edit?venueID=1").session((MockHttpSession) request.getSession()))
                 .andExpect(status().isOk())
                 .andExpect(view().name("/admin/venue_edit"))
                 .andExpect(model().attribute("venue", venue));
@@ -169,7 +169,7 @@ public class AdminVenueControllerTests {
         when(venueService.findByVenueID(2))
                 .thenThrow(EntityNotFoundException.class);
         try {
-            mockMvc.perform(get("/venue_edit?venueID=2"))
+            mockMvc.perform(get("/venue_edit?venueID=2").session((MockHttpSession) request.getSession()))
                     .andExpect(status().isNotFound());
         } catch (Exception e) {
             e.printStackTrace();
@@ -184,7 +184,7 @@ public class AdminVenueControllerTests {
     @Test
     public void testEditVenueWithNoParam() {
         try {
-            mockMvc.perform(get("/venue_edit"))
+            mockMvc.perform(get("/venue_edit").session((MockHttpSession) request.getSession()))
                     .andExpect(status().isBadRequest());
         } catch (Exception exception) {
             exception.printStackTrace();
@@ -195,7 +195,7 @@ public class AdminVenueControllerTests {
     @Test
     public void testEditVenueWithNegativeParam() {
         try {
-            mockMvc.perform(get("/venue_edit?venueID=-1"))
+            mockMvc.perform(get("/venue_edit?venueID=-1").session((MockHttpSession) request.getSession()))
                     .andExpect(status().isBadRequest());
         } catch (Exception e) {
             fail();
@@ -205,7 +205,7 @@ public class AdminVenueControllerTests {
     @Test
     public void testEditVenueWithFloatParam() {
         try {
-            mockMvc.perform(get("/venue_edit?venueID=1.5"))
+            mockMvc.perform(get("/venue_edit?venueID=1.5").session((MockHttpSession) request.getSession()))
                     .andExpect(status().isBadRequest());
         } catch (Exception e) {
             fail();
@@ -216,7 +216,7 @@ public class AdminVenueControllerTests {
     //    venue_add
     @Test
     public void testVenueAddWithSuccess() throws Exception {
-        mockMvc.perform(get("/venue_add"))
+        mockMvc.perform(get("/venue_add").session((MockHttpSession) request.getSession()))
                 .andExpect(status().isOk())
                 .andExpect(view().name("/admin/venue_add"));
     }
@@ -241,7 +241,7 @@ public class AdminVenueControllerTests {
 
         when(venueService.findAll(pageable))
                 .thenReturn(page);
-        mockMvc.perform(get("/venueList.do?page=1"))
+        mockMvc.perform(get("/venueList.do?page=1").session((MockHttpSession) request.getSession()))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[{\"venueID\":1,\"venueName\":\"venue_name\",\"description\":\"description\",\"price\":1,\"picture\":\"picture\",\"address\":\"address\",\"open_time\":\"" + CORRECT_OPEN_TIME + "\",\"close_time\":\"" + CORRECT_CLOSE_TIME + "\"}]"));
         verify(venueService).findAll(pageable);
@@ -273,7 +273,7 @@ public class AdminVenueControllerTests {
 
         when(venueService.findAll(pageable))
                 .thenReturn(page);
-        mockMvc.perform(get("/venueList.do"))
+        mockMvc.perform(get("/venueList.do").session((MockHttpSession) request.getSession()))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[{\"venueID\":1,\"venueName\":\"venue_name\",\"description\":\"description\",\"price\":1,\"picture\":\"picture\",\"address\":\"address\",\"open_time\":\"" + CORRECT_OPEN_TIME + "\",\"close_time\":\"" + CORRECT_CLOSE_TIME + "\"}]"));
         verify(venueService).findAll(pageable);
@@ -285,7 +285,7 @@ public class AdminVenueControllerTests {
         Pageable pageable = PageRequest.of(1, 10, Sort.by("venueID").ascending());
         when(venueService.findAll(pageable))
                 .thenReturn(new PageImpl<>(Collections.emptyList(), pageable, 0));
-        mockMvc.perform(get("/venueList.do?page=2"))
+        mockMvc.perform(get("/venueList.do?page=2").session((MockHttpSession) request.getSession()))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
         verify(venueService).findAll(pageable);
@@ -294,7 +294,7 @@ public class AdminVenueControllerTests {
     @Test
     public void testGetVenueListWithNegativeParam() {
         try {
-            mockMvc.perform(get("/venueList.do?page=-1"))
+            mockMvc.perform(get("/venueList.do?page=-1").session((MockHttpSession) request.getSession()))
                     .andExpect(status().isBadRequest());
         } catch (Exception e) {
             e.printStackTrace();
@@ -305,7 +305,7 @@ public class AdminVenueControllerTests {
     @Test
     public void testGetVenueListWithFloatParam() {
         try {
-            mockMvc.perform(get("/venueList.do?page=1.5"))
+            mockMvc.perform(get("/venueList.do?page=1.5").session((MockHttpSession) request.getSession()))
                     .andExpect(status().isBadRequest());
         } catch (Exception e) {
             fail();
@@ -324,7 +324,7 @@ public class AdminVenueControllerTests {
                 .thenReturn(1);
 
         mockMvc.perform(MockMvcRequestBuilders.multipart("/addVenue.do")
-                        .file(imageFile)
+                        .file(imageFile).session((MockHttpSession) request.getSession())
                         .param("venueName", "venue_name")
                         .param("address", "address")
                         .param("description", "description")
@@ -368,7 +368,7 @@ public class AdminVenueControllerTests {
 
         mockMvc.perform(MockMvcRequestBuilders.multipart("/addVenue.do")
                         .file(new MockMultipartFile("picture", "", "image/jpg", new byte[0]))
-                        .param("venueName", "venue_name")
+                        .param("venueName", "venue_name").session((MockHttpSession) request.getSession())
                         .param("address", "address")
                         .param("description", "description")
                         .param("price", "1")
@@ -390,7 +390,7 @@ public class AdminVenueControllerTests {
 
             mockMvc.perform(MockMvcRequestBuilders.multipart("/addVenue.do")
                             .file(new MockMultipartFile("picture", "", "image/jpg", new byte[0]))
-                            .param("venueName", "venue_name")
+                            .param("venueName", "venue_name").session((MockHttpSession) request.getSession())
                             .param("address", "address")
                             .param("description", "description")
                             .param("price", LONG_STRING)
@@ -411,7 +411,7 @@ public class AdminVenueControllerTests {
         try {
             mockMvc.perform(MockMvcRequestBuilders.multipart("/addVenue.do")
                             .file(new MockMultipartFile("picture", "", "image/jpg", new byte[0]))
-                            .param("venueName", "venue_name")
+                            .param("venueName", "venue_name").session((MockHttpSession) request.getSession())
                             .param("address", "address")
                             .param("description", LONG_STRING)
                             .param("price", "1")
@@ -431,7 +431,7 @@ public class AdminVenueControllerTests {
 
         mockMvc.perform(MockMvcRequestBuilders.multipart("/addVenue.do")
                         .file(new MockMultipartFile("picture", "", "image/jpg", new byte[0]))
-                        .param("venueName", "venue_name")
+                        .param("venueName", "venue_name").session((MockHttpSession) request.getSession())
                         .param("address", "address")
                         .param("description", "description")
                         .param("price", "1")
@@ -446,7 +446,7 @@ public class AdminVenueControllerTests {
     @Test
     public void testAddVenueWithNoParam() {
         try {
-            mockMvc.perform(post("/addVenue.do"))
+            mockMvc.perform(post("/addVenue.do").session((MockHttpSession) request.getSession()))
                     .andExpect(status().isBadRequest());
         } catch (Exception e) {
             e.printStackTrace();
@@ -458,7 +458,7 @@ public class AdminVenueControllerTests {
     public void testAddVenueWithFloatPrice() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.multipart("/addVenue.do")
                         .file(new MockMultipartFile("picture", "", "image/jpg", new byte[0]))
-                        .param("venueName", "venue_name")
+                        .param("venueName", "venue_name").session((MockHttpSession) request.getSession())
                         .param("address", "address")
                         .param("description", "description")
                         .param("price", "1.5")
@@ -471,7 +471,7 @@ public class AdminVenueControllerTests {
     public void testAddVenueWithNegPrice() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.multipart("/addVenue.do")
                         .file(new MockMultipartFile("picture", "", "image/jpg", new byte[0]))
-                        .param("venueName", "venue_name")
+                        .param("venueName", "venue_name").session((MockHttpSession) request.getSession())
                         .param("address", "address")
                         .param("description", "description")
                         .param("price", "-1")
@@ -484,7 +484,7 @@ public class AdminVenueControllerTests {
     public void testAddVenueWithBadTime() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.multipart("/addVenue.do")
                         .file(new MockMultipartFile("picture", "", "image/jpg", new byte[0]))
-                        .param("venueName", "venue_name")
+                        .param("venueName", "venue_name").session((MockHttpSession) request.getSession())
                         .param("address", "address")
                         .param("description", "description")
                         .param("price", "1")
@@ -519,7 +519,7 @@ public class AdminVenueControllerTests {
                 .param("open_time", CORRECT_OPEN_TIME)
                 .param("close_time", CORRECT_CLOSE_TIME);
 
-        mockMvc.perform(request)
+        mockMvc.perform(request.session((MockHttpSession) this.request.getSession()))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("venue_add"))
                 .andExpect(model().attribute("message", "添加失败！"));
@@ -536,7 +536,7 @@ public class AdminVenueControllerTests {
                 .thenReturn(new Venue(1, "venue_names", "descriptions", 1, "", "addresses", "open_time", "close_time"));
 
         mockMvc.perform(MockMvcRequestBuilders.multipart("/modifyVenue.do")
-                        .file(imageFile)
+                        .file(imageFile).session((MockHttpSession) request.getSession())
                         .param("venueID", "1")
                         .param("venueName", "venue_name")
                         .param("address", "address")
@@ -584,7 +584,7 @@ public class AdminVenueControllerTests {
                 .thenReturn(new Venue(1, "venue_name", "description", 1, "pic1", "address", "open_time", "close_time"));
         mockMvc.perform(MockMvcRequestBuilders.multipart("/modifyVenue.do")
                         .file(new MockMultipartFile("picture", "", "image/jpg", new byte[0]))
-                        .param("venueID", "1")
+                        .param("venueID", "1").session((MockHttpSession) request.getSession())
                         .param("venueName", "venue_name")
                         .param("address", "address")
                         .param("description", "description")
@@ -603,7 +603,7 @@ public class AdminVenueControllerTests {
                 .thenReturn(new Venue(1, "venue_name", "description", 1, "pic", "address", CORRECT_OPEN_TIME, CORRECT_CLOSE_TIME));
 
         try {
-            mockMvc.perform(post("/modifyVenue.do")
+            mockMvc.perform(post("/modifyVenue.do").session((MockHttpSession) request.getSession())
                             .param("venueID", "1")
                             .param("venueName", "venue_name")
                             .param("address", "address")
@@ -633,7 +633,7 @@ public class AdminVenueControllerTests {
 
         try {
             mockMvc.perform(MockMvcRequestBuilders.multipart("/modifyVenue.do")
-                            .file(imageFile)
+                            .file(imageFile).session((MockHttpSession) request.getSession())
                             .param("venueID", "1")
                             .param("venueName", "venue_name")
                             .param("address", "address")
@@ -652,7 +652,7 @@ public class AdminVenueControllerTests {
     @Test
     public void testModifyVenueWithFloatPrice() {
         try {
-            mockMvc.perform(post("/modifyVenue.do")
+            mockMvc.perform(post("/modifyVenue.do").session((MockHttpSession) request.getSession())
                             .param("venueID", "1.5")
                             .param("venueName", "venue_name")
                             .param("address", "address")
@@ -672,7 +672,7 @@ public class AdminVenueControllerTests {
 //        when(venueService.findByVenueID(1))
 //                .thenReturn(new Venue(1, "venue_name", "description", 1, "pic", "address", "open_time", "close_time"));
         try {
-            mockMvc.perform(post("/modifyVenue.do")
+            mockMvc.perform(post("/modifyVenue.do").session((MockHttpSession) request.getSession())
                             .param("venueID", "-1")
                             .param("venueName", "venue_name")
                             .param("address", "address")
@@ -690,7 +690,7 @@ public class AdminVenueControllerTests {
     @Test
     public void testModifyVenueWithBadTime() {
         try {
-            mockMvc.perform(post("/modifyVenue.do")
+            mockMvc.perform(post("/modifyVenue.do").session((MockHttpSession) request.getSession())
                             .param("venueID", "1")
                             .param("venueName", "venue_name")
                             .param("address", "address")
@@ -729,7 +729,7 @@ public class AdminVenueControllerTests {
                     .param("open_time", CORRECT_OPEN_TIME)
                     .param("close_time", CORRECT_CLOSE_TIME);
 
-            mockMvc.perform(request)
+            mockMvc.perform(request.session((MockHttpSession) this.request.getSession()))
                     .andExpect(status().is4xxClientError());
         } catch (Exception e) {
             fail();
@@ -739,7 +739,7 @@ public class AdminVenueControllerTests {
     @Test
     public void testModifyVenueWithNoParam() {
         try {
-            mockMvc.perform(post("/modifyVenue.do"))
+            mockMvc.perform(post("/modifyVenue.do").session((MockHttpSession) request.getSession()))
                     .andExpect(status().isBadRequest());
         } catch (Exception e) {
             e.printStackTrace();
@@ -753,7 +753,7 @@ public class AdminVenueControllerTests {
     public void testDelVenueWithSuccess() throws Exception {
         doNothing()
                 .when(venueService).delById(1);
-        mockMvc.perform(post("/delVenue.do")
+        mockMvc.perform(post("/delVenue.do").session((MockHttpSession) request.getSession())
                         .param("venueID", "1"))
                 .andExpect(status().isOk())
                 .andExpect(content().string("true"));
@@ -775,7 +775,7 @@ public class AdminVenueControllerTests {
         doThrow(EmptyResultDataAccessException.class)
                 .when(venueService).delById(1);
         try {
-            mockMvc.perform(post("/delVenue.do")
+            mockMvc.perform(post("/delVenue.do").session((MockHttpSession) request.getSession())
                             .param("venueID", "1"))
                     .andExpect(status().isNotFound())
                     .andExpect(content().string("false"));
@@ -787,7 +787,7 @@ public class AdminVenueControllerTests {
     @Test
     public void testDelVenueWithFloatParam() throws Exception {
         try {
-            mockMvc.perform(post("/delVenue.do")
+            mockMvc.perform(post("/delVenue.do").session((MockHttpSession) request.getSession())
                             .param("venueID", "1.5"))
                     .andExpect(status().isBadRequest());
         } catch (Exception e) {
@@ -800,7 +800,7 @@ public class AdminVenueControllerTests {
         doThrow(new EmptyResultDataAccessException(-1))
                 .when(venueService).delById(-1);
         try {
-            mockMvc.perform(post("/delVenue.do")
+            mockMvc.perform(post("/delVenue.do").session((MockHttpSession) request.getSession())
                             .param("venueID", "-1"))
                     .andExpect(status().isBadRequest());
         } catch (Exception e) {
@@ -811,7 +811,7 @@ public class AdminVenueControllerTests {
     @Test
     public void testDelVenueWithNoParam() throws Exception {
         try {
-            mockMvc.perform(post("/delVenue.do"))
+            mockMvc.perform(post("/delVenue.do").session((MockHttpSession) request.getSession()))
                     .andExpect(status().isBadRequest());
         } catch (Exception e) {
             fail();
@@ -823,7 +823,7 @@ public class AdminVenueControllerTests {
     public void testCheckVenueNameWithTrueSuccess() throws Exception {
         when(venueService.countVenueName("venue_name"))
                 .thenReturn(0);
-        mockMvc.perform(post("/checkVenueName.do")
+        mockMvc.perform(post("/checkVenueName.do").session((MockHttpSession) request.getSession())
                         .param("venueName", "venue_name"))
                 .andExpect(status().isOk())
                 .andExpect(content().string("true"));
@@ -845,7 +845,7 @@ public class AdminVenueControllerTests {
     public void testCheckVenueNameWithFalseSuccess() throws Exception {
         when(venueService.countVenueName("venue_name"))
                 .thenReturn(1);
-        mockMvc.perform(post("/checkVenueName.do")
+        mockMvc.perform(post("/checkVenueName.do").session((MockHttpSession) request.getSession())
                         .param("venueName", "venue_name"))
                 .andExpect(status().isOk())
                 .andExpect(content().string("false"));
@@ -853,7 +853,7 @@ public class AdminVenueControllerTests {
 
     @Test
     public void testCheckVenueNameWithNoParam() throws Exception {
-        mockMvc.perform(post("/checkVenueName.do"))
+        mockMvc.perform(post("/checkVenueName.do").session((MockHttpSession) request.getSession()))
                 .andExpect(status().isBadRequest());
     }
 
@@ -0,0 +1,150 @@
+package com.demo.venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.demo.cache.CountCache;
+import com.demo.cache.VenueCache;
+import com.demo.cache.bus.InvalidationBus;
+import com.demo.cache.bus.InvalidationEvent;
+import com.demo.cache.bus.JdbcInvalidationTransport;
+import com.demo.cache.bus.LoopbackInvalidationTransport;
+import com.demo.dao.VenueDao;
+import com.demo.entity.Venue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class InvalidationBusTests {
+
+    private VenueDao venueDao;
+    private VenueCache nodeA;
+    private VenueCache nodeB;
+    private CountCache countA;
+    private CountCache countB;
+
+    @BeforeEach
+    public void setUp() {
+        venueDao = mock(VenueDao.class);
+        LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+        InvalidationBus busA = new InvalidationBus(transport);
+        InvalidationBus busB = new InvalidationBus(transport.peer());
+        nodeA = venueCache(busA);
+        nodeB = venueCache(busB);
+        countA = countCache(busA);
+        countB = countCache(busB);
+    }
+
+    @Test
+    public void testVenueUpdateEvictsOtherNode() {
+        when(venueDao.findByVenueName("venue"))
+                .thenReturn(new Venue(1, "venue", "", 100, "", "", "08:00", "22:00"))
+                .thenReturn(new Venue(1, "venue", "", 200, "", "", "08:00", "22:00"));
+        assertEquals(100, nodeB.findByVenueName("venue").getPrice());
+
+        nodeA.invalidateAll();
+
+        assertEquals(200, nodeB.findByVenueName("venue").getPrice());
+    }
+
+    @Test
+    public void testCountInvalidationReachesOtherNode() {
+        AtomicLong rows = new AtomicLong(5);
+        assertEquals(5, countB.get("order:user:test", rows::get));
+        assertEquals(5, countB.get("news", rows::get));
+        rows.set(6);
+
+        countA.invalidate("order:user:test", "order:state:1");
+        assertEquals(6, countB.get("order:user:test", rows::get));
+        assertEquals(5, countB.get("news", rows::get));
+
+        countA.invalidateAll();
+        assertEquals(6, countB.get("news", rows::get));
+    }
+
+    @Test
+    public void testOwnEventsAreIgnored() {
+        InvalidationBus bus = new InvalidationBus(new LoopbackInvalidationTransport());
+        List<String> keys = new ArrayList<>();
+        bus.subscribe("region", keys::add);
+
+        bus.publish("region", "key");
+
+        assertTrue(keys.isEmpty());
+        assertEquals(1, bus.getPublished());
+        assertEquals(0, bus.getReceived());
+    }
+
+    @Test
+    public void testJdbcTransportWaitsForLateCommits() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        JdbcInvalidationTransport transport = new JdbcInvalidationTransport();
+        ReflectionTestUtils.setField(transport, "jdbcTemplate", jdbcTemplate);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(10L);
+        List<String> keys = new ArrayList<>();
+        transport.start(event -> keys.add(event.getKey()));
+
+        // 12已经可见但11还没提交，12尚未稳定，下一次仍从10之后查询
+        when(jdbcTemplate.queryForList(anyString(), anyInt(), anyLong(), anyInt()))
+                .thenReturn(Arrays.asList(row(12, "b", 0)));
+        transport.poll();
+        when(jdbcTemplate.queryForList(anyString(), anyInt(), eq(10L), anyInt()))
+                .thenReturn(Arrays.asList(row(11, "a", 1), row(12, "b", 1), row(13, "c", 0)));
+        transport.poll();
+        when(jdbcTemplate.queryForList(anyString(), anyInt(), eq(12L), anyInt()))
+                .thenReturn(Arrays.asList(row(13, "c", 1)));
+        transport.poll();
+
+        assertEquals(Arrays.asList("b", "a", "c"), keys);
+        verify(jdbcTemplate).queryForList(anyString(), anyInt(), eq(12L), anyInt());
+    }
+
+    @Test
+    public void testTransportFailureDoesNotBreakWrites() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        JdbcInvalidationTransport transport = new JdbcInvalidationTransport();
+        ReflectionTestUtils.setField(transport, "jdbcTemplate", jdbcTemplate);
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new org.springframework.dao.DataAccessResourceFailureException("down"));
+
+        assertDoesNotThrow(() -> transport.send(new InvalidationEvent("node", "venue", null)));
+    }
+
+    private Map<String, Object> row(long version, String item, int settled) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("version", version);
+        row.put("origin", "other");
+        row.put("region", "venue");
+        row.put("item", item);
+        row.put("settled", settled);
+        return row;
+    }
+
+    private VenueCache venueCache(InvalidationBus bus) {
+        VenueCache cache = new VenueCache();
+        ReflectionTestUtils.setField(cache, "venueDao", venueDao);
+        ReflectionTestUtils.setField(cache, "bus", bus);
+        cache.init();
+        return cache;
+    }
+
+    private CountCache countCache(InvalidationBus bus) {
+        CountCache cache = new CountCache();
+        ReflectionTestUtils.setField(cache, "bus", bus);
+        cache.init();
+        return cache;
+    }
+}
@@ -0,0 +1,78 @@
+package com.demo.venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.demo.cache.VenueCache;
+import com.demo.dao.VenueDao;
+import com.demo.entity.Venue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.Optional;
+
+public class VenueCacheTests {
+
+    private VenueCache venueCache;
+    private VenueDao venueDao;
+
+    @BeforeEach
+    public void setUp() {
+        venueDao = mock(VenueDao.class);
+        venueCache = new VenueCache();
+        ReflectionTestUtils.setField(venueCache, "venueDao", venueDao);
+        venueCache.init();
+    }
+
+    @Test
+    public void testRepeatedLookupHitsCache() {
+        Venue venue = new Venue(1, "venue", "", 100, "", "", "08:00", "22:00");
+        when(venueDao.findByVenueName("venue")).thenReturn(venue);
+
+        assertEquals(1, venueCache.findByVenueName("venue").getVenueID());
+        assertEquals(1, venueCache.findByVenueName("venue").getVenueID());
+
+        verify(venueDao, times(1)).findByVenueName("venue");
+        assertEquals(1, venueCache.getHits());
+        assertEquals(1, venueCache.getMisses());
+    }
+
+    @Test
+    public void testReturnedVenueIsACopy() {
+        when(venueDao.findById(1)).thenReturn(Optional.of(new Venue(1, "venue", "", 100, "", "", "08:00", "22:00")));
+
+        venueCache.findByVenueID(1).setPrice(1);
+
+        assertEquals(100, venueCache.findByVenueID(1).getPrice());
+    }
+
+    @Test
+    public void testMissingVenueIsCachedAndInvalidated() {
+        when(venueDao.findByVenueName("new")).thenReturn(null);
+        when(venueDao.findById(2)).thenReturn(Optional.empty());
+
+        assertNull(venueCache.findByVenueName("new"));
+        assertNull(venueCache.findByVenueName("new"));
+        assertThrows(EntityNotFoundException.class, () -> venueCache.findByVenueID(2));
+        verify(venueDao, times(1)).findByVenueName("new");
+
+        venueCache.invalidateAll();
+        when(venueDao.findByVenueName("new")).thenReturn(new Venue(2, "new", "", 100, "", "", "08:00", "22:00"));
+
+        assertEquals(2, venueCache.findByVenueName("new").getVenueID());
+    }
+
+    @Test
+    public void testExpiredEntryIsReloaded() {
+        ReflectionTestUtils.setField(venueCache, "ttlSeconds", 0L);
+        venueCache.init();
+        when(venueDao.findByVenueName("venue")).thenReturn(new Venue(1, "venue", "", 100, "", "", "08:00", "22:00"));
+
+        venueCache.findByVenueName("venue");
+        venueCache.findByVenueName("venue");
+
+        verify(venueDao, times(2)).findByVenueName("venue");
+    }
+}
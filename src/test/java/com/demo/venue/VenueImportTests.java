@@ -0,0 +1,63 @@
+package com.demo.venue;
+
+import com.demo.cache.CountCache;
+import com.demo.cache.NameFilter;
+import com.demo.cache.VenueCache;
+import com.demo.dao.VenueDao;
+import com.demo.entity.vo.ImportReport;
+import com.demo.service.impl.ImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class VenueImportTests {
+
+    private ImportServiceImpl importService;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        VenueDao venueDao = mock(VenueDao.class);
+        when(venueDao.findVenueNameIn(anyCollection())).thenReturn(Collections.emptyList());
+        jdbcTemplate = mock(JdbcTemplate.class);
+        importService = new ImportServiceImpl();
+        ReflectionTestUtils.setField(importService, "venueDao", venueDao);
+        ReflectionTestUtils.setField(importService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(importService, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(importService, "venueCache", mock(VenueCache.class));
+        ReflectionTestUtils.setField(importService, "countCache", new CountCache());
+        ReflectionTestUtils.setField(importService, "nameFilter", new NameFilter());
+    }
+
+    @Test
+    public void testImportAcceptsVenuesOpenPastMidnight() throws Exception {
+        String csv = "venueName,price,open_time,close_time\n" +
+                "夜场,100,18:00,02:00\n" +
+                "全天,100,00:00,00:00\n" +
+                "白天,100, 09:00 ,22:00\n" +
+                "坏时间,100,9点,22:00\n";
+
+        ImportReport report = importService.importVenues(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(4, report.getTotal());
+        assertEquals(3, report.getImported());
+        assertEquals(1, report.getErrors().size());
+        assertEquals(5, report.getErrors().get(0).getRow());
+        ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), args.capture());
+        assertEquals("02:00", args.getValue().get(0)[5]);
+    }
+}
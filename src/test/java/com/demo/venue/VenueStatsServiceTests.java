@@ -0,0 +1,63 @@
+package com.demo.venue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+import com.demo.cache.VenueCache;
+import com.demo.dao.VenueDailyStatsDao;
+import com.demo.entity.Venue;
+import com.demo.entity.VenueDailyStats;
+import com.demo.entity.vo.VenueStatsVo;
+import com.demo.service.impl.VenueStatsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+public class VenueStatsServiceTests {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private VenueStatsServiceImpl venueStatsService;
+
+    @BeforeEach
+    public void setUp() {
+        // 与demo_db.sql中的数据一致，开放时间末尾带空格
+        VenueCache venueCache = mock(VenueCache.class);
+        when(venueCache.findAll()).thenReturn(Arrays.asList(
+                new Venue(2, "2222", "", 200, "", "", "09:00 ", "20:00"),
+                new Venue(20, "场馆5", "", 800, "", "", "08:00 ", "22:00"),
+                new Venue(30, "夜场", "", 100, "", "", "18:00", "02:00"),
+                new Venue(31, "坏数据", "", 100, "", "", "9点", "20:00")));
+        VenueDailyStatsDao venueDailyStatsDao = mock(VenueDailyStatsDao.class);
+        when(venueDailyStatsDao.findByDayBetweenOrderByDayAscVenueIDAsc(DAY, DAY)).thenReturn(Arrays.asList(
+                new VenueDailyStats(2, DAY, 2, 11, 2200),
+                new VenueDailyStats(20, DAY, 1, 7, 5600),
+                new VenueDailyStats(30, DAY, 1, 2, 200),
+                new VenueDailyStats(31, DAY, 1, 2, 200)));
+        venueStatsService = new VenueStatsServiceImpl();
+        ReflectionTestUtils.setField(venueStatsService, "venueCache", venueCache);
+        ReflectionTestUtils.setField(venueStatsService, "venueDailyStatsDao", venueDailyStatsDao);
+    }
+
+    @Test
+    public void testUtilizationWithPaddedTimes() {
+        List<VenueStatsVo> stats = venueStatsService.findStats(DAY, DAY);
+
+        assertEquals(1.0, stats.get(0).getUtilization(), 1e-9);
+        assertEquals(0.5, stats.get(1).getUtilization(), 1e-9);
+    }
+
+    @Test
+    public void testUtilizationPastMidnight() {
+        assertEquals(0.25, venueStatsService.findStats(DAY, DAY).get(2).getUtilization(), 1e-9);
+    }
+
+    @Test
+    public void testUnparsableTimesGiveZero() {
+        assertEquals(0, venueStatsService.findStats(DAY, DAY).get(3).getUtilization(), 1e-9);
+    }
+}